@@ -37,17 +37,61 @@
  */
 package es.csic.iiia.planes;
 
+import java.io.Serializable;
+import java.util.Random;
+
 /**
  * Skeletal implementation of an element.
  *
  * @author Marc Pujol <mpujol at iiia.csic.es>
  */
-public abstract class AbstractElement implements Element {
+public abstract class AbstractElement implements Element, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Identifier of this element, unique among the elements of its kind
+     * within its world.
+     *
+     * It is kept in the topmost class so that it is restored before any
+     * other field when a {@link Snapshot} is read back, because elements that
+     * are (transitively) referenced by their own fields may be hashed by
+     * identifier while they are still being restored.
+     */
+    private int id;
 
     private World world;
 
+    /**
+     * Random number generator of this element, built on demand because it
+     * depends on the element's identifier.
+     */
+    private Random random;
+
     public AbstractElement() {}
 
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Set the identifier of this element.
+     *
+     * @param id identifier of this element.
+     */
+    protected void setId(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public Random getRandom() {
+        if (random == null) {
+            random = world.getRandom(this);
+        }
+        return random;
+    }
+
     @Override
     public World getWorld() {
         return world;
@@ -41,6 +41,7 @@ import es.csic.iiia.planes.definition.DTask;
 import es.csic.iiia.planes.evaluation.EvaluationStrategy;
 import es.csic.iiia.planes.idle.IdleStrategy;
 import es.csic.iiia.planes.maxsum.centralized.CostFactor;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.List;
 import java.util.logging.Logger;
@@ -49,12 +50,18 @@ import java.util.logging.Logger;
  * Skeletal implementation of a Factory to minimize the effort required to build
  * an actual factory.
  *
+ * Factories are copied along with their worlds when restoring a
+ * {@link Snapshot}, but their configuration is not: the restored factory is
+ * given the configuration of the new simulation instead.
+ *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public abstract class AbstractFactory implements Factory {
+public abstract class AbstractFactory implements Factory, Serializable {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(AbstractFactory.class.getName());
 
-    private final Configuration config;
+    private transient Configuration config;
 
     /**
      * World being used in the current simulation.
@@ -75,6 +82,15 @@ public abstract class AbstractFactory implements Factory {
         return config;
     }
 
+    /**
+     * Set the configuration of this factory.
+     *
+     * @param config new configuration.
+     */
+    void setConfiguration(Configuration config) {
+        this.config = config;
+    }
+
     @Override
     public Operator buildOperator(Location location, List<DTask> tasks) {
         Operator o = new Operator(location, tasks);
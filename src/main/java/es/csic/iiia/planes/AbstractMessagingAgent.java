@@ -37,6 +37,8 @@
 package es.csic.iiia.planes;
 
 import es.csic.iiia.planes.behaviors.Behavior;
+import es.csic.iiia.planes.messaging.Message;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -50,6 +52,8 @@ import java.util.logging.Logger;
 public abstract class AbstractMessagingAgent extends AbstractPositionedElement
     implements MessagingAgent
 {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(AbstractMessagingAgent.class.getName());
 
     /**
@@ -71,4 +75,11 @@ public abstract class AbstractMessagingAgent extends AbstractPositionedElement
         this.communicationRange = range;
     }
 
+    @Override
+    public void receiveAll(List<Message> messages) {
+        for (int i=0, n=messages.size(); i<n; i++) {
+            receive(messages.get(i));
+        }
+    }
+
 }
\ No newline at end of file
@@ -43,6 +43,7 @@ import es.csic.iiia.planes.evaluation.IndependentDistanceEvaluation;
 import es.csic.iiia.planes.gui.Drawable;
 import es.csic.iiia.planes.gui.PlaneDrawer;
 import es.csic.iiia.planes.idle.IdleStrategy;
+import es.csic.iiia.planes.util.EventRing;
 import es.csic.iiia.planes.util.RotatingList;
 import java.awt.Color;
 import java.util.ArrayList;
@@ -59,17 +60,30 @@ import java.util.logging.Logger;
  */
 public abstract class AbstractPlane extends AbstractBehaviorAgent
     implements Plane {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(AbstractPlane.class.getName());
 
     /**
-     * ID Generator
+     * Traced event: the plane heads towards a task (or to the operator, if
+     * the event has no task).
      */
-    final private static AtomicInteger idGenerator = new AtomicInteger();
+    public static final int EVENT_HEADS_TOWARDS = 1;
+
+    /**
+     * Traced event: the plane finds a task.
+     */
+    public static final int EVENT_FINDS = 2;
+
+    /**
+     * Traced event: the plane completes a task.
+     */
+    public static final int EVENT_COMPLETES = 3;
 
     /**
-     * Plane id
+     * ID Generator, for planes that do not belong to any world
      */
-    final int id = idGenerator.incrementAndGet();
+    final private static AtomicInteger idGenerator = new AtomicInteger();
 
     /**
      * Current plane state
@@ -149,7 +163,10 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
      */
     private double flightDistance;
 
-    private Location.MoveStep currentDestination;
+    /**
+     * Slot of this plane in the world's movement table.
+     */
+    private int slot = -1;
 
     private PlaneDrawer drawer = null;
 
@@ -160,6 +177,7 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
      */
     public AbstractPlane(Location location) {
         super(location);
+        setId(idGenerator.incrementAndGet());
         tasks = new ArrayList<Task>();
         tasksToRemove = new ArrayList<Task>();
         searchForTasks = new ArrayList<Task>();
@@ -175,13 +193,37 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
         }
     }
 
+    @Override
+    public void setWorld(World world) {
+        super.setWorld(world);
+        setId(world.nextId(Plane.class));
+        slot = world.getKinematics().add(getLocation());
+    }
+
+    @Override
+    public void setLocation(Location location) {
+        super.setLocation(location);
+        if (slot >= 0) {
+            getWorld().getKinematics().setPosition(slot, location);
+        }
+    }
+
     public Logger getLog() {
         return LOG;
     }
 
-    @Override
-    public int getId() {
-        return id;
+    /**
+     * Record an event of this plane in the world's trace, if tracing is
+     * enabled.
+     *
+     * @param event type of event.
+     * @param t task involved in the event, or <em>null</em> if there is none.
+     */
+    protected void trace(int event, Task t) {
+        final EventRing trace = getWorld().getTrace();
+        if (trace != null) {
+            trace.record(getWorld().getTime(), event, getId(), t == null ? -1 : t.getId());
+        }
     }
 
     @Override
@@ -238,15 +280,55 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
 
     @Override
     public void setDestination(Location l) {
-        if (currentDestination != null && currentDestination.destination.equals(l)) {
-            return;
+        if (getWorld().getKinematics().setDestination(slot, l, getSpeed())) {
+            angle = getLocation().getAngle(l);
         }
+    }
+
+    /**
+     * Get the location where this plane is currently heading to.
+     *
+     * @return current destination, or <em>null</em> if there is none.
+     */
+    public Location getCurrentDestination() {
+        final Kinematics k = getWorld().getKinematics();
+        return k.isMoving(slot) ? k.getDestination(slot) : null;
+    }
+
+    @Override
+    public void getTrack(Kinematics.Track track) {
+        getWorld().getKinematics().getTrack(slot, track);
+    }
+
+    /**
+     * Check whether this plane has a destination to head to.
+     *
+     * @return true if the plane has a destination.
+     */
+    protected boolean hasDestination() {
+        return getWorld().getKinematics().isMoving(slot);
+    }
 
-        angle = getLocation().getAngle(l);
-        currentDestination = getLocation().buildMoveStep(l, getSpeed());
+    /**
+     * Get the number of steps left to reach the current destination.
+     *
+     * @return steps left to reach the destination, or 0 if there is none.
+     */
+    protected int getRemainingSteps() {
+        final Kinematics k = getWorld().getKinematics();
+        return k.isMoving(slot) ? k.getRemainingSteps(slot) : 0;
     }
 
-    public Location.MoveStep getCurrentDestination() { return currentDestination; }
+    /**
+     * Get the distance flown by this plane on each step towards its current
+     * destination.
+     *
+     * @return distance flown per step, or 0 if there is no destination.
+     */
+    protected double getStepLength() {
+        final Kinematics k = getWorld().getKinematics();
+        return k.isMoving(slot) ? k.getStepLength(slot) : 0;
+    }
 
     protected Task getNearest(List<Task> tasks) {
         final Location l = getLocation();
@@ -383,8 +465,12 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
     public boolean move() {
         flightDistance += getSpeed();
         battery.consume(1);
-        angle = currentDestination.alpha+Math.PI;
-        return getLocation().move(currentDestination);
+        final Kinematics k = getWorld().getKinematics();
+        angle = k.getHeading(slot)+Math.PI;
+        final boolean arrived = k.move(slot);
+        k.getPosition(slot, getLocation());
+        getWorld().planeMoved(this);
+        return arrived;
     }
 
     /**
@@ -421,11 +507,18 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
      */
     protected void setNextTask(Task t) {
         if (t != null && state == State.NORMAL) {
-            LOG.log(Level.FINE, "{0} heads towards {1}", new Object[]{this, t});
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "{0} heads towards {1}", new Object[]{this, t});
+            }
+            trace(EVENT_HEADS_TOWARDS, t);
             setDestination(t.getLocation());
         } else if (state == State.NORMAL) {
-            LOG.log(Level.FINE, "{0} heads towards {1}", new Object[]{this, getWorld().getNearestOperator(getLocation())});
-            setDestination(getWorld().getNearestOperator(getLocation()).getLocation());
+            final Operator o = getWorld().getNearestOperator(getLocation());
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.log(Level.FINE, "{0} heads towards {1}", new Object[]{this, o});
+            }
+            trace(EVENT_HEADS_TOWARDS, null);
+            setDestination(o.getLocation());
         }
         nextTask = t;
     }
@@ -436,7 +529,10 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
      * @param t task that has been completed
      */
     private void triggerTaskCompleted(Task t) {
-        LOG.log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        }
+        trace(EVENT_COMPLETES, t);
         completedLocations.add(t.getLocation());
         getWorld().removeTask(t);
         removeTask(t);
@@ -457,6 +553,7 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
     @Override
     public void addTask(Task task) {
         tasks.add(task);
+        getWorld().getTaskHolders().add(task, this);
 
         taskAdded(task);
     }
@@ -464,6 +561,7 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
     @Override
     public void addSearchTask(Task task) {
         searchForTasks.add(task);
+        getWorld().getTaskHolders().add(task, this);
     }
 
     /**
@@ -475,12 +573,27 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
 
     @Override
     public Task removeTask(Task task) {
-        searchForTasks.remove(task);
-        tasks.remove(task);
+        dropTask(task);
         taskRemoved(task);
         return task;
     }
 
+    /**
+     * Drop the given task from the lists of tasks to rescue and to search for,
+     * keeping the world's index of task holders up to date.
+     *
+     * @param task task to drop.
+     */
+    void dropTask(Task task) {
+        final TaskHolderIndex<AbstractPlane> holders = getWorld().getTaskHolders();
+        if (searchForTasks.remove(task)) {
+            holders.remove(task, this);
+        }
+        if (tasks.remove(task)) {
+            holders.remove(task, this);
+        }
+    }
+
     @Override
     public List<Task> getTasks() {
         return tasks;
@@ -558,7 +671,7 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
         }
 
         if (o instanceof Plane) {
-            return id - ((Plane)o).getId();
+            return getId() - ((Plane)o).getId();
         }
 
         return -1;
@@ -571,13 +684,13 @@ public abstract class AbstractPlane extends AbstractBehaviorAgent
         }
         final Plane p = (Plane)o;
 
-        return id == p.getId();
+        return getId() == p.getId();
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 79 * hash + this.id;
+        hash = 79 * hash + getId();
         return hash;
     }
 
@@ -46,6 +46,8 @@ public abstract class AbstractPositionedElement extends AbstractElement
     implements Positioned
 {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * The element's location.
      */
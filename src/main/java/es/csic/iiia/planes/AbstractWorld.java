@@ -43,84 +43,199 @@ import es.csic.iiia.planes.definition.DProblem;
 import es.csic.iiia.planes.definition.DStation;
 import es.csic.iiia.planes.cli.Configuration;
 import es.csic.iiia.planes.messaging.Message;
+import es.csic.iiia.planes.messaging.RangedMessage;
+import es.csic.iiia.planes.util.EventRing;
+import es.csic.iiia.planes.util.SplitMixRandom;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Base implementation of a World, leaving some details to be implemented by the
  * more specific types.
  *
+ * Worlds can be copied through {@link Snapshot}s. Hence, everything they hold
+ * must be serializable, except for the machinery used to run the simulation,
+ * which is transient and rebuilt whenever the simulation is (re)started.
+ *
  * @author Marc Pujol <mpujol at iiia.csic.es>
  */
-public abstract class AbstractWorld implements World {
+public abstract class AbstractWorld implements World, Serializable {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(AbstractWorld.class.getName());
 
+    /**
+     * Regions along each side of the search grid of problems that do not
+     * state valid dimensions.
+     */
+    static final int LEGACY_REGIONS = 111;
+
+    /**
+     * Side length of the blocks of problems that do not state a valid one.
+     */
+    static final int LEGACY_BLOCK_SIZE = 3;
+
     private Space space = null;
     private List<Agent> agents = new ArrayList<Agent>();
     private List<Plane> planes = new ArrayList<Plane>();
-    private List<Task> tasks = new ArrayList<Task>();
+
+    /**
+     * Pending tasks, in the order in which they were added.
+     */
+    private Set<Task> tasks = new LinkedHashSet<Task>();
+
+    /**
+     * Pending tasks, sorted by the time at which they expire.
+     */
+    private PriorityQueue<Task> expirations =
+            new PriorityQueue<Task>(11, new ExpirationComparator());
     private List<Station> stations = new ArrayList<Station>();
 
+    /**
+     * Spatial index of the planes' positions, used to deliver messages.
+     */
+    private transient PlaneGrid planeGrid;
+
+    /**
+     * Movement state of the planes.
+     */
+    private Kinematics kinematics = new Kinematics();
+
+    /**
+     * Nearest-station lookup, (re)built whenever the set of stations changes.
+     */
+    private transient NearestGrid<Station> stationGrid;
+
+    /**
+     * Nearest-operator lookup, (re)built whenever the set of operators changes.
+     */
+    private transient NearestGrid<Operator> operatorGrid;
+
+    /**
+     * Buffer used to collect the recipients of a message.
+     */
+    private transient int[] recipients;
+
+    /**
+     * True if the messages for each plane are batched and delivered at once.
+     */
+    private transient boolean batching;
+
+    /**
+     * Messages waiting to be delivered to each plane, when batching.
+     */
+    private transient List<List<Message>> batches;
+
+    /**
+     * Indices of the planes with messages waiting to be delivered, in the
+     * order they got their first message.
+     */
+    private transient List<Integer> batched;
+
     /**
      * Statistics collector.
      */
     private StatsCollector stats = new StatsCollector(this);
 
+    /**
+     * Stream where the results are written, or null to use the defaults.
+     */
+    private transient PrintStream output = null;
+
+    /**
+     * Last identifier given to each kind of element.
+     */
+    private Map<Class<?>, Integer> lastIds = new HashMap<Class<?>, Integer>();
+
+    /**
+     * Random number generator of this world, from which the generators of
+     * its elements are split.
+     */
+    private SplitMixRandom random = new SplitMixRandom(0);
+
     /**
      * Operators in charge of supplying tasks to the UAVs.
      */
     private ArrayList<Operator> operators = new ArrayList<Operator>();
 
     /**
-     * List of regions in space.
+     * Regions and blocks in space.
      */
-    private ArrayList<Region> regions = new ArrayList<Region>();
-
-    public ArrayList<Region> getRegions() { return regions; }
+    private SearchGrid searchGrid;
 
-    private Region[][] regionGrid;
+    public SearchGrid getSearchGrid() { return searchGrid; }
 
     /**
-     * List of blocks in space.
+     * Index of the unassigned regions.
      */
-    private Block[][] blocks;
+    private RegionPool unassignedRegions;
 
-    public Block[][] getBlocks() { return blocks; }
+    public RegionPool getUnassignedRegions() { return unassignedRegions; }
 
-    private Block[][] blockGrid;
+    private AssignedBlockIndex assignedBlocks;
 
-    public Block[][] getBlockGrid() { return blockGrid; }
+    public AssignedBlockIndex getAssignedBlocks() { return assignedBlocks; }
 
-    private List<Block> unassignedBlocks = new ArrayList<Block>();
+    private BlockPool unassignedBlocks;
 
     public List<Block> getUnassignedBlocks() { return unassignedBlocks; }
 
-    private List<SARPlane> standbyAvailable = new ArrayList<SARPlane>();
+    /**
+     * Planes holding each task.
+     */
+    private TaskHolderIndex<AbstractPlane> taskHolders = new TaskHolderIndex<AbstractPlane>();
+
+    public TaskHolderIndex<AbstractPlane> getTaskHolders() { return taskHolders; }
+
+    /**
+     * Standby planes available to rescue survivors.
+     */
+    private StandbyPool standbyAvailable;
 
-    public List<SARPlane> getStandbyAvailable() { return standbyAvailable; }
+    public StandbyPool getStandbyAvailable() { return standbyAvailable; }
 
+    @Override
     public boolean sendStandby(Block b) {
         if (standbyAvailable.isEmpty()) {
             return false;
         }
-        else {
-            double dist = Double.MAX_VALUE;
-            SARPlane closest = null;
-            for (SARPlane plane: standbyAvailable) {
-                if (plane.getLocation().getDistance(b.getCenter()) < dist) {
-                    closest = plane;
-                    dist = plane.getLocation().getDistance(b.getCenter());
-                }
-            }
-            standbyAvailable.remove(closest);
-            closest.setNextBlockStandby(b);
-            return true;
-        }
+        standbyAvailable.pollNearest(b.getCenter()).setNextBlockStandby(b);
+        return true;
     }
 
     private long timeoutStart = -1;
 
+    /**
+     * True once the agents have been initialized for the simulation.
+     */
+    private boolean started = false;
+
+    /**
+     * True once the simulation has ended.
+     */
+    private boolean finished = false;
+
+    /**
+     * Trace of the simulation's events, or null if tracing is disabled.
+     */
+    private transient EventRing trace;
+
     /**
      * Current simulation time.
      */
@@ -160,6 +275,45 @@ public abstract class AbstractWorld implements World {
         return operators;
     }
 
+    @Override
+    public int nextId(Class<? extends Element> kind) {
+        Integer last = lastIds.get(kind);
+        final int id = last == null ? 1 : last + 1;
+        lastIds.put(kind, id);
+        return id;
+    }
+
+    @Override
+    public Random getRandom(Element element) {
+        final long kind = element.getClass().getName().hashCode();
+        return random.split((kind << 32) ^ element.getId());
+    }
+
+    @Override
+    public Kinematics getKinematics() {
+        return kinematics;
+    }
+
+    @Override
+    public EventRing getTrace() {
+        return trace;
+    }
+
+    @Override
+    public void setOutput(PrintStream output) {
+        this.output = output;
+    }
+
+    /**
+     * Get the stream where the results are written.
+     *
+     * @return stream where to write the results, or null if they should be
+     *         written to the standard output and the results file.
+     */
+    PrintStream getOutput() {
+        return output;
+    }
+
     /**
      * Add an operator to the simulation.
      *
@@ -185,30 +339,15 @@ public abstract class AbstractWorld implements World {
 
     @Override
     public void init(DProblem d) {
+        random = new SplitMixRandom(getConfig().getSeed());
         space = new Space(d.getWidth(), d.getHeight());
 
-        //TODO: Fix so that it gets block size, number of regions from configuration.
-        int widthRegions = d.getWidthRegions();
-        int heightRegions = d.getHeightRegions();
-        int blockSize = d.getBlockSize();
-        //regions = Location.buildRegions(blockSize, widthRegions, heightRegions);
-        //regionGrid = new Region[heightRegions][widthRegions];
-        regions = Location.buildRegions(3, 111, 111);
-        regionGrid = new Region[111][111];
-        for (Region r : regions) {
-            regionGrid[r.getxLoc()][r.getyLoc()] = r;
-        }
-
-        //blocks = Location.buildBlocks(regions, blockSize);
-        //blockGrid = new Block[widthRegions*3][heightRegions*3];
-        blocks = Location.buildBlocks(regions, 3);
-        blockGrid = new Block[111*3][111*3];
-        for (Block[] blockSet : blocks) {
-            for (Block b : blockSet) {
-                blockGrid[b.getxLoc()][b.getyLoc()] = b;
-                unassignedBlocks.add(b);
-            }
-        }
+        searchGrid = buildSearchGrid(d);
+        unassignedRegions = new RegionPool(searchGrid);
+        unassignedBlocks = new BlockPool(searchGrid);
+        unassignedBlocks.fill();
+        assignedBlocks = new AssignedBlockIndex(searchGrid);
+        standbyAvailable = new StandbyPool(space, d.getPlanes().size());
 
         setDuration(d.getDuration());
 
@@ -236,6 +375,32 @@ public abstract class AbstractWorld implements World {
         }
     }
 
+    /**
+     * Build the search grid of the given problem.
+     * <p/>
+     * Problems state the grid's dimensions themselves, but these are only
+     * used when the grid spans exactly the problem's space. Older problem
+     * files either do not state them or hold placeholder values, and they
+     * always got a grid of 111x111 regions of blocks of size 3.
+     *
+     * @param d problem definition.
+     * @return search grid of the problem.
+     */
+    static SearchGrid buildSearchGrid(DProblem d) {
+        final long side = (long)SearchGrid.REGION_SIDE*d.getBlockSize();
+        if (d.getBlockSize() > 0
+                && side*d.getWidthRegions() == d.getWidth()
+                && side*d.getHeightRegions() == d.getHeight()) {
+            return new SearchGrid(d.getWidthRegions(), d.getHeightRegions(), d.getBlockSize());
+        }
+
+        LOG.log(Level.WARNING, "The problem''s {0}x{1} regions of blocks of size {2} do not "
+                + "match its {3}x{4} space, using {5}x{5} regions of blocks of size {6} instead.",
+                new Object[]{d.getWidthRegions(), d.getHeightRegions(), d.getBlockSize(),
+                d.getWidth(), d.getHeight(), LEGACY_REGIONS, LEGACY_BLOCK_SIZE});
+        return new SearchGrid(LEGACY_REGIONS, LEGACY_REGIONS, LEGACY_BLOCK_SIZE);
+    }
+
     @Override
     public void setDuration(long duration) {
         this.duration = duration;
@@ -253,12 +418,68 @@ public abstract class AbstractWorld implements World {
 
     @Override
     public void run() {
+        runUntil(Long.MAX_VALUE);
+    }
 
-        for (Agent a : agents) {
-            a.initialize();
+    @Override
+    public void runUntil(long until) {
+        if (finished) {
+            return;
+        }
+        if (trace == null && !getConfig().getTraceFile().isEmpty()) {
+            trace = new EventRing(getConfig().getTraceSize());
+        }
+        if (!started) {
+            for (Agent a : agents) {
+                a.initialize();
+            }
+            started = true;
+        }
+
+        batching = getConfig().isBatchDelivery();
+        finished = simulate(until);
+
+        if (finished) {
+            for (Plane p : planes) {
+                stats.collect(p);
+            }
+            stats.display();
+            if (trace != null) {
+                writeTrace();
+            }
+        }
+    }
+
+    /**
+     * Write the trace of events to the configured file.
+     */
+    private void writeTrace() {
+        final String file = getConfig().getTraceFile();
+        try {
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+            try {
+                trace.writeTo(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.SEVERE, "Unable to write the trace to \"" + file + "\"", ex);
         }
+    }
+
+    /**
+     * Runs the simulation steps until the given time.
+     *
+     * @param until time at which to stop the simulation.
+     * @return true if the simulation has ended, or false if it has been
+     *         stopped before.
+     */
+    private boolean simulate(long until) {
+        for (; time<duration || tasks.size() > 0; time++) {
+            if (time >= until) {
+                return false;
+            }
 
-        for (time=0; time<duration || tasks.size() > 0; time++) {
             LOG.fine("----------     TICK     ----------");
             computeStep();
             displayStep();
@@ -280,11 +501,39 @@ public abstract class AbstractWorld implements World {
             }
 
         }
+        return true;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        deliverBatches();
+        return new Snapshot(this);
+    }
+
+    /**
+     * Replace the configuration of this world, and let its agents know about
+     * it.
+     *
+     * @see Reconfigurable
+     * @param config new configuration.
+     */
+    void reconfigure(Configuration config) {
+        if (!(factory instanceof AbstractFactory)) {
+            throw new IllegalStateException("Unable to change the configuration of "
+                    + factory.getClass().getSimpleName() + "s.");
+        }
 
-        for (Plane p : planes) {
-            stats.collect(p);
+        ((AbstractFactory)factory).setConfiguration(config);
+        for (Agent a : agents) {
+            if (a instanceof Reconfigurable) {
+                ((Reconfigurable)a).reconfigure();
+            }
         }
-        stats.display();
     }
 
     /**
@@ -294,25 +543,66 @@ public abstract class AbstractWorld implements World {
      * perform actions, by calling their {@link Agent#step()} methods.
      */
     protected void computeStep() {
+        // Messages sent before this step (during initialization) must be
+        // available in it
+        deliverBatches();
 
         for (Agent a : agents) {
             a.preStep();
         }
-        for (Task t : tasks) {
-            if (t.getExpireTime() <= getTime()) {
-                for (Agent a : agents) {
-                    if (a instanceof AbstractPlane) {
-                        ((AbstractPlane) a).tasksToRemove.add(t);
-                    }
-                }
-            }
-        }
+        expireTasks();
         for (Agent a : agents) {
             a.step();
         }
         for (Agent a : agents) {
             a.postStep();
         }
+        deliverBatches();
+    }
+
+    /**
+     * Signals the expiration of all the tasks whose expiration time has been
+     * reached in this step.
+     *
+     * Each task is signaled just once, to the planes that are holding it
+     * (either to rescue or to search for it). These planes will then expire
+     * the task during their next step. Tasks that are not held by any plane
+     * (because no plane has been in range of their operator) expire right
+     * away.
+     */
+    private void expireTasks() {
+        while (!expirations.isEmpty() && expirations.peek().getExpireTime() <= time) {
+            final Task t = expirations.poll();
+            if (!tasks.contains(t)) {
+                // Already completed
+                continue;
+            }
+
+            final List<AbstractPlane> holders = taskHolders.getHolders(t);
+            for (AbstractPlane p : holders) {
+                p.tasksToRemove.add(t);
+            }
+
+            if (holders.isEmpty()) {
+                t.expire();
+                removeExpired(t);
+            }
+        }
+    }
+
+    /**
+     * Sorts tasks by expiration time, breaking ties by their identifiers.
+     */
+    private static class ExpirationComparator implements Comparator<Task>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int compare(Task t1, Task t2) {
+            if (t1.getExpireTime() != t2.getExpireTime()) {
+                return t1.getExpireTime() < t2.getExpireTime() ? -1 : 1;
+            }
+            return t1.compareTo(t2);
+        }
     }
 
     /**
@@ -335,21 +625,21 @@ public abstract class AbstractWorld implements World {
     }
 
     /**
-     * Get the list of tasks.
+     * Get the pending tasks.
      *
-     * @return list of pending tasks in this world.
+     * @return pending tasks in this world, in the order they were added.
      */
     @Override
-    public List<Task> getTasks() {
+    public Collection<Task> getTasks() {
         return tasks;
     }
 
     @Override
     public void addTask(Task task) {
-        if (tasks.contains(task)) {
+        if (!tasks.add(task)) {
             throw new RuntimeException("This task already exists!");
         }
-        tasks.add(task);
+        expirations.add(task);
     }
 
     @Override
@@ -357,7 +647,7 @@ public abstract class AbstractWorld implements World {
         // Check if it has been removed before tracking the stats. Sometimes two
         // planes may think that they complete a pending task, whereas in
         // reality another plane has already completed it before (split brain).
-        while (tasks.remove(t)) {
+        if (tasks.remove(t)) {
             stats.collect(t);
         }
     }
@@ -374,44 +664,127 @@ public abstract class AbstractWorld implements World {
 
     @Override
     public Station getNearestStation(Location location) {
-        double mind = Double.MAX_VALUE;
-        Station best = null;
-        for (Station s : stations) {
-            final double d = location.getDistance(s.getLocation());
-            if (d < mind) {
-                best = s;
-                mind = d;
-            }
+        if (stationGrid == null || stationGrid.size() != stations.size()) {
+            stationGrid = new NearestGrid<Station>(stations, space);
         }
-        return best;
+        return stationGrid.nearest(location);
     }
 
     @Override
     public Operator getNearestOperator(Location location) {
-        double mind = Double.MAX_VALUE;
-        Operator best = null;
-        for (Operator o : operators) {
-            final double d = location.getDistance(o.getLocation());
-            if (d < mind) {
-                best = o;
-                mind = d;
-            }
+        if (operatorGrid == null || operatorGrid.size() != operators.size()) {
+            operatorGrid = new NearestGrid<Operator>(operators, space);
+        }
+        return operatorGrid.nearest(location);
+    }
+
+    @Override
+    public Block getNearestFreeBlock(Location location, double distance) {
+        return searchGrid.nearestFreeBlock(location, distance);
+    }
+
+    @Override
+    public void planeMoved(Plane p) {
+        if (planeGrid != null) {
+            planeGrid.update(p);
+        }
+        if (standbyAvailable != null && !standbyAvailable.isEmpty() && p instanceof SARPlane) {
+            standbyAvailable.update((SARPlane)p);
+        }
+    }
+
+    /**
+     * Get the spatial index of the planes, (re)building it whenever the set of
+     * planes has changed.
+     */
+    private PlaneGrid getPlaneGrid() {
+        if (planeGrid == null || planeGrid.size() != planes.size()) {
+            planeGrid = new PlaneGrid(planes, space);
         }
-        return best;
+        return planeGrid;
     }
 
     @Override
     public void sendMessage(Message message) {
         final Location origin = message.getSender().getLocation();
-        final double range = message.getSender().getCommunicationRange();
+        final double range = message instanceof RangedMessage
+                ? ((RangedMessage)message).getRange()
+                : message.getSender().getCommunicationRange();
+        final MessagingAgent recipient = message.getRecipient();
+
+        // Unicast messages go straight to their recipient
+        if (recipient != null) {
+            if (recipient instanceof Plane
+                    && origin.distance(recipient.getLocation()) <= range) {
+                deliver((Plane)recipient, message);
+            }
+            return;
+        }
+
+        final PlaneGrid grid = getPlaneGrid();
+        if (recipients == null || recipients.length < grid.size()) {
+            recipients = new int[grid.size()];
+        }
+        final int n = grid.query(origin, range, recipients);
+        for (int i=0; i<n; i++) {
+            deliver(recipients[i], message);
+        }
+    }
 
-        for (Plane p : planes) {
-            if (  origin.distance(p.getLocation()) <= range
-               && (p == message.getRecipient() || message.getRecipient() == null))
-            {
-                p.receive(message);
+    /**
+     * Deliver a message to the given plane, or batch it if batching is
+     * enabled.
+     */
+    private void deliver(Plane p, Message message) {
+        if (batching) {
+            final int i = getPlaneGrid().indexOf(p);
+            if (i >= 0) {
+                deliver(i, message);
+                return;
             }
         }
+        p.receive(message);
+    }
+
+    /**
+     * Deliver a message to the plane at the given position of the list of
+     * planes, or batch it if batching is enabled.
+     */
+    private void deliver(int i, Message message) {
+        if (!batching) {
+            planes.get(i).receive(message);
+            return;
+        }
+
+        if (batches == null) {
+            batches = new ArrayList<List<Message>>();
+            batched = new ArrayList<Integer>();
+        }
+        while (batches.size() <= i) {
+            batches.add(new ArrayList<Message>());
+        }
+        final List<Message> batch = batches.get(i);
+        if (batch.isEmpty()) {
+            batched.add(i);
+        }
+        batch.add(message);
+    }
+
+    /**
+     * Hand the batched messages over to their recipients, with a single call
+     * per plane.
+     */
+    private void deliverBatches() {
+        if (batched == null || batched.isEmpty()) {
+            return;
+        }
+        for (int k=0, len=batched.size(); k<len; k++) {
+            final int i = batched.get(k);
+            final List<Message> batch = batches.get(i);
+            planes.get(i).receiveAll(batch);
+            batch.clear();
+        }
+        batched.clear();
     }
 
-}
\ No newline at end of file
+}
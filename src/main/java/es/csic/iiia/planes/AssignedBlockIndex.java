@@ -0,0 +1,156 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.io.Serializable;
+
+/**
+ * Index of the world's assigned blocks, used to find out whether a block is
+ * crowded by other blocks being explored.
+ * <p/>
+ * Blocks within some Manhattan distance of a block form a diamond in the
+ * block grid, which is made of one contiguous range of rows per column.
+ * Hence, the index keeps a Fenwick tree of the assigned blocks of each
+ * column of the grid, which is kept up to date by the grid whenever their
+ * state changes, and counting the assigned blocks near a block takes a
+ * couple of logarithmic queries per column instead of a scan over the
+ * surrounding window. The trees take a single int per block.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class AssignedBlockIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SearchGrid grid;
+    private final int columns;
+    private final int rows;
+    /** Fenwick trees of the columns, one after the other */
+    private final int[] tree;
+    private int total;
+
+    /**
+     * Build a new index of the blocks of the given grid, which will keep it
+     * up to date from then on.
+     *
+     * @param grid grid of blocks to index.
+     */
+    public AssignedBlockIndex(SearchGrid grid) {
+        this.grid = grid;
+        columns = grid.getBlockColumns();
+        rows = grid.getBlockRows();
+        tree = new int[columns*(rows+1)];
+
+        for (int i=0; i<grid.getBlockCount(); i++) {
+            if (grid.getBlockState(i) == Block.blockState.ASSIGNED) {
+                add(grid.getBlockX(i), grid.getBlockY(i), 1);
+            }
+        }
+        grid.setAssignedIndex(this);
+    }
+
+    /**
+     * Update the index after a block has changed its state.
+     *
+     * @param index number of the block whose state has changed.
+     * @param previous previous state of the block.
+     * @param state new state of the block.
+     */
+    void stateChanged(int index, Block.blockState previous, Block.blockState state) {
+        final boolean was = previous == Block.blockState.ASSIGNED;
+        final boolean is = state == Block.blockState.ASSIGNED;
+        if (was != is) {
+            add(grid.getBlockX(index), grid.getBlockY(index), is ? 1 : -1);
+        }
+    }
+
+    /**
+     * Get the number of assigned blocks.
+     *
+     * @return number of assigned blocks.
+     */
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Count the assigned blocks whose Manhattan distance to the given grid
+     * position is at most the given radius.
+     *
+     * @param x x position in the grid.
+     * @param y y position in the grid.
+     * @param radius maximum (inclusive) Manhattan distance.
+     * @return number of assigned blocks within the radius.
+     */
+    public int countWithin(int x, int y, int radius) {
+        if (radius < 0 || total == 0) {
+            return 0;
+        }
+        int count = 0;
+        final int x0 = Math.max(0, x - radius), x1 = Math.min(columns - 1, x + radius);
+        for (int i = x0; i <= x1; i++) {
+            final int span = radius - Math.abs(i - x);
+            final int y0 = Math.max(0, y - span), y1 = Math.min(rows, y + span + 1);
+            if (y0 < y1) {
+                count += prefix(i, y1) - prefix(i, y0);
+            }
+        }
+        return count;
+    }
+
+    private void add(int x, int y, int delta) {
+        total += delta;
+        final int base = x*(rows+1);
+        for (int j = y + 1; j <= rows; j += j & -j) {
+            tree[base + j] += delta;
+        }
+    }
+
+    /**
+     * Number of assigned blocks in rows [0, y) of column x.
+     */
+    private int prefix(int x, int y) {
+        final int base = x*(rows+1);
+        int sum = 0;
+        for (int j = y; j > 0; j -= j & -j) {
+            sum += tree[base + j];
+        }
+        return sum;
+    }
+
+}
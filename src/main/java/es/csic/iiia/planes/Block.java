@@ -1,77 +1,84 @@
 package es.csic.iiia.planes;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.Serializable;
 
 /**
  * Created by Guillermo on 12/12/2015.
+ * <p/>
+ * Blocks are lightweight views over the state kept by the world's
+ * {@link SearchGrid}, so two views of the same block are equal.
  */
-public class Block {
+public final class Block implements Serializable {
 
-    private Location corner;
+    private static final long serialVersionUID = 1L;
 
-    private Location center;
+    private final SearchGrid grid;
 
     /**
-     * Generator of unique identifiers.
+     * Number of this block in the grid.
      */
-    private final static AtomicInteger idGenerator = new AtomicInteger();
+    private final int index;
 
     /**
-     * Identifier of this task.
+     * Identifier of this block.
      */
-    private final int id = idGenerator.incrementAndGet();
-
-    public int getId() { return id; }
-
-    private int xLoc, yLoc;
+    public int getId() { return index + 1; }
 
     public int getxLoc() {
-        return xLoc;
+        return grid.getBlockX(index);
     }
 
     public int getyLoc() {
-        return yLoc;
+        return grid.getBlockY(index);
     }
 
     public enum blockState {
         UNASSIGNED, ASSIGNED, EXPLORED, RE_EXPLORED
     }
 
-    private blockState state;
+    Block(SearchGrid grid, int index) {
+        this.grid = grid;
+        this.index = index;
+    }
 
-    private int region;
+    int getIndex() { return index; }
 
-    private Task survivor = null;
+    SearchGrid getGrid() { return grid; }
 
-    public Block(int width, Location location, int xLoc, int yLoc, int regionID) {
-        corner = location;
-        center = new Location(corner.getX()-width/2.0, corner.getY()-width/2.0);
-        this.xLoc = xLoc;
-        this.yLoc = yLoc;
-        this.region = regionID;
-        state = blockState.UNASSIGNED;
-    }
+    public Location getCenter() { return grid.getBlockCenter(index); }
 
-    public Location getCenter() { return center; }
+    public Task getSurvivor() { return grid.getSurvivor(index); }
 
-    public Task getSurvivor() { return survivor; }
+    public int getRegion() { return grid.getBlockRegion(index); }
 
-    public int getRegion() { return region; }
+    public void setSurvivor(Task t) { grid.setSurvivor(index, t); }
 
-    public void setSurvivor(Task t) { this.survivor = t; }
+    public boolean hasSurvivor() { return grid.hasSurvivor(index); }
 
-    public boolean hasSurvivor() { return survivor != null; }
+    public blockState getState() { return grid.getBlockState(index); }
 
-    public blockState getState() { return state; }
+    public void setState(blockState state) { grid.setBlockState(index, state); }
 
-    public void setState(blockState state) { this.state = state; }
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Block)) {
+            return false;
+        }
+        final Block other = (Block)o;
+        return index == other.index && grid == other.grid;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
 
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
 //        buf.append("Task[").append(id).append("](").append(getLocation().getX())
 //                .append(",").append(getLocation().getY()).append(")");
-        buf.append("Block[").append(id).append("]");
+        buf.append("Block[").append(getId()).append("]");
         return buf.toString();
     }
 
@@ -0,0 +1,250 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import es.csic.iiia.planes.util.FenwickTree;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * List of blocks with fast positional and by-identity removals.
+ * <p/>
+ * Blocks are kept in slots, in the order in which they were added, and a
+ * {@link FenwickTree} counts the occupied slots. Getting or removing the
+ * block at a given position, removing a block by identity and appending a
+ * block all take logarithmic time, instead of the linear shifts and scans
+ * of an array list. Since the list order is exactly that of an array list,
+ * drawing a random position picks the same block as it would from one.
+ * <p/>
+ * Slots only hold the numbers of the blocks in their {@link SearchGrid},
+ * and the pool returns views of them. A block can be in the pool at most
+ * once, and blocks can only be appended.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class BlockPool extends AbstractList<Block>
+    implements RandomAccess, Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final SearchGrid grid;
+    /** Number of the block in each slot, or -1 if the slot is empty */
+    private int[] slots;
+    /** Slot of each block of the grid, or -1 if it is not in the pool */
+    private final int[] slotOf;
+    private FenwickTree occupied;
+    /** First slot never used */
+    private int end;
+
+    /**
+     * Build a new empty pool of blocks of the given grid.
+     *
+     * @param grid grid of the blocks.
+     */
+    public BlockPool(SearchGrid grid) {
+        this.grid = grid;
+        slotOf = new int[grid.getBlockCount()];
+        Arrays.fill(slotOf, -1);
+        slots = new int[16];
+        Arrays.fill(slots, -1);
+        occupied = new FenwickTree(16);
+    }
+
+    /**
+     * Append all the blocks of the grid that are not in the pool yet, in
+     * the order of their numbers. This takes linear time.
+     */
+    public void fill() {
+        final int missing = slotOf.length - size();
+        if (missing == 0) {
+            return;
+        }
+        compact(size() + missing);
+        for (int b=0; b<slotOf.length; b++) {
+            if (slotOf[b] < 0) {
+                slots[end] = b;
+                slotOf[b] = end;
+                end++;
+            }
+        }
+        rebuild();
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return occupied.total();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return occupied.total() == 0;
+    }
+
+    @Override
+    public Block get(int index) {
+        return grid.getBlock(slots[slot(index)]);
+    }
+
+    @Override
+    public void add(int index, Block b) {
+        if (index != size()) {
+            throw new UnsupportedOperationException("Blocks can only be appended to the pool.");
+        }
+        final int i = numberOf(b);
+        if (slotOf[i] >= 0) {
+            throw new IllegalArgumentException(b + " is already in the pool.");
+        }
+        if (end == slots.length) {
+            compact(Math.max(16, 2*size()));
+        }
+        slots[end] = i;
+        slotOf[i] = end;
+        occupied.add(end, 1);
+        end++;
+        modCount++;
+    }
+
+    @Override
+    public Block remove(int index) {
+        final int s = slot(index);
+        final Block b = grid.getBlock(slots[s]);
+        release(s);
+        return b;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final int s = slotOf(o);
+        if (s < 0) {
+            return false;
+        }
+        release(s);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return slotOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        final int s = slotOf(o);
+        return s < 0 ? -1 : occupied.prefix(s);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slotOf, -1);
+        slots = new int[16];
+        Arrays.fill(slots, -1);
+        occupied = new FenwickTree(16);
+        end = 0;
+        modCount++;
+    }
+
+    private int numberOf(Block b) {
+        if (b.getGrid() != grid) {
+            throw new IllegalArgumentException(b + " does not belong to the pool's grid.");
+        }
+        return b.getIndex();
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return occupied.select(index);
+    }
+
+    private int slotOf(Object o) {
+        if (!(o instanceof Block) || ((Block)o).getGrid() != grid) {
+            return -1;
+        }
+        return slotOf[((Block)o).getIndex()];
+    }
+
+    private void release(int s) {
+        slotOf[slots[s]] = -1;
+        slots[s] = -1;
+        occupied.add(s, -1);
+        modCount++;
+    }
+
+    /**
+     * Move the blocks to the first slots, keeping their order, and make
+     * room for the given number of blocks.
+     */
+    private void compact(int capacity) {
+        final int[] old = slots;
+        final int oldEnd = end;
+        slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        end = 0;
+        for (int s=0; s<oldEnd; s++) {
+            if (old[s] >= 0) {
+                slots[end] = old[s];
+                slotOf[old[s]] = end;
+                end++;
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Recount the occupied slots, in linear time.
+     */
+    private void rebuild() {
+        final int[] counts = new int[slots.length];
+        for (int s=0; s<end; s++) {
+            if (slots[s] >= 0) {
+                counts[s] = 1;
+            }
+        }
+        occupied = new FenwickTree(counts);
+    }
+
+}
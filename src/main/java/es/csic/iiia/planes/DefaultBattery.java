@@ -43,6 +43,8 @@ package es.csic.iiia.planes;
  */
 public class DefaultBattery implements Battery {
 
+    private static final long serialVersionUID = 1L;
+
     private long capacity;
     private long energy;
 
@@ -46,6 +46,8 @@ import es.csic.iiia.planes.cli.Configuration;
  */
 public class DefaultFactory extends AbstractFactory {
 
+    private static final long serialVersionUID = 1L;
+
     public DefaultFactory(Configuration config) {
         super(config);
     }
@@ -48,6 +48,8 @@ import java.util.List;
  */
 public class DefaultPlane extends AbstractPlane {
 
+    private static final long serialVersionUID = 1L;
+
     public DefaultPlane(Location location) {
         super(location);
     }
@@ -44,6 +44,8 @@ package es.csic.iiia.planes;
  */
 public class DefaultWorld extends AbstractWorld {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Builds a new world, whose elements will be created by the given factory.
      *
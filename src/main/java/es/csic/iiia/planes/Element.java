@@ -37,6 +37,8 @@
  */
 package es.csic.iiia.planes;
 
+import java.util.Random;
+
 /**
  * Represents a physical element (participant) of the simulation.
  *
@@ -56,6 +58,25 @@ public interface Element {
      */
     void setWorld(World world);
 
+    /**
+     * Get the identifier of this element, which is unique among the elements
+     * of its kind within its world.
+     *
+     * @return identifier of this element.
+     */
+    int getId();
+
+    /**
+     * Get the random number generator of this element.
+     *
+     * Elements must draw all their random numbers from this generator, so
+     * that simulations are reproducible.
+     *
+     * @see World#getRandom(Element)
+     * @return random number generator of this element.
+     */
+    Random getRandom();
+
     /**
      * Initialize this element.
      *
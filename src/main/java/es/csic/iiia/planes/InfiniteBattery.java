@@ -43,6 +43,8 @@ package es.csic.iiia.planes;
  */
 public class InfiniteBattery implements Battery {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public void setCapacity(long capacity) {}
 
@@ -0,0 +1,307 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Movement state of all the planes of a world, stored as a structure of
+ * arrays.
+ *
+ * Each plane gets a slot when it joins the world, holding its position and
+ * the straight-line move towards its current destination (per-step
+ * increments and remaining steps). Setting a new destination or advancing a
+ * plane only updates primitive values in place, so nothing is allocated
+ * while planes fly around, and advancing a plane several steps at once runs
+ * in a tight loop.
+ *
+ * The plane's {@link Location} is refreshed after each move, because
+ * locations are plain values read throughout the simulation.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class Kinematics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int size;
+
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] destX = new double[0];
+    private double[] destY = new double[0];
+    private double[] incx = new double[0];
+    private double[] incy = new double[0];
+    private double[] alpha = new double[0];
+    /** Remaining steps to reach the destination */
+    private int[] steps = new int[0];
+    /** Whether each plane has a destination at all */
+    private boolean[] moving = new boolean[0];
+
+    /**
+     * Add a new plane to the table.
+     *
+     * @param location initial location of the plane.
+     * @return slot of the plane within the table.
+     */
+    public int add(Location location) {
+        if (size == x.length) {
+            final int capacity = Math.max(16, size*2);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            destX = Arrays.copyOf(destX, capacity);
+            destY = Arrays.copyOf(destY, capacity);
+            incx = Arrays.copyOf(incx, capacity);
+            incy = Arrays.copyOf(incy, capacity);
+            alpha = Arrays.copyOf(alpha, capacity);
+            steps = Arrays.copyOf(steps, capacity);
+            moving = Arrays.copyOf(moving, capacity);
+        }
+        x[size] = location.getX();
+        y[size] = location.getY();
+        return size++;
+    }
+
+    /**
+     * Set the position of a plane, as when it is placed somewhere else.
+     *
+     * The current destination is kept, but the plane will keep its previous
+     * heading and step count towards it.
+     *
+     * @param i slot of the plane.
+     * @param location new position of the plane.
+     */
+    public void setPosition(int i, Location location) {
+        x[i] = location.getX();
+        y[i] = location.getY();
+    }
+
+    /**
+     * Set the destination of a plane, computing the straight-line move
+     * from its current position at the given speed.
+     *
+     * Nothing changes if the plane is already heading to that destination.
+     *
+     * @param i slot of the plane.
+     * @param destination destination of the plane.
+     * @param speed speed of the plane, in meters per step.
+     * @return true if the destination has changed, or false otherwise.
+     */
+    public boolean setDestination(int i, Location destination, double speed) {
+        final double tx = destination.getX(), ty = destination.getY();
+        if (moving[i] && destX[i] == tx && destY[i] == ty) {
+            return false;
+        }
+
+        final double dx = tx - x[i];
+        final double dy = ty - y[i];
+        final double a = Math.atan2(dy, dx);
+        moving[i] = true;
+        destX[i] = tx;
+        destY[i] = ty;
+        alpha[i] = a;
+        incx[i] = speed * Math.cos(a);
+        incy[i] = speed * Math.sin(a);
+        steps[i] = (int)Math.ceil(Math.sqrt(dx*dx + dy*dy)/speed);
+        return true;
+    }
+
+    /**
+     * Advance a plane one step towards its destination.
+     *
+     * @param i slot of the plane.
+     * @return true if the plane has reached its destination (or has none).
+     */
+    public boolean move(int i) {
+        if (!moving[i]) {
+            return true;
+        }
+        if (--steps[i] <= 0) {
+            x[i] = destX[i];
+            y[i] = destY[i];
+            return true;
+        }
+        x[i] += incx[i];
+        y[i] += incy[i];
+        return false;
+    }
+
+    /**
+     * Copy the current position of a plane into the given location.
+     *
+     * @param i slot of the plane.
+     * @param location location to update.
+     */
+    public void getPosition(int i, Location location) {
+        location.setLocation(x[i], y[i]);
+    }
+
+    /**
+     * Copy the current move of a plane into the given track.
+     *
+     * @param i slot of the plane.
+     * @param track track to update.
+     */
+    public void getTrack(int i, Track track) {
+        track.x = x[i];
+        track.y = y[i];
+        track.destX = destX[i];
+        track.destY = destY[i];
+        track.incx = incx[i];
+        track.incy = incy[i];
+        track.steps = steps[i];
+        track.moving = moving[i];
+    }
+
+    /**
+     * @param i slot of the plane.
+     * @return true if the plane has a destination.
+     */
+    public boolean isMoving(int i) {
+        return moving[i];
+    }
+
+    /**
+     * @param i slot of the plane.
+     * @return the current destination of the plane.
+     */
+    public Location getDestination(int i) {
+        return new Location(destX[i], destY[i]);
+    }
+
+    /**
+     * @param i slot of the plane.
+     * @return heading of the plane towards its destination, in radians.
+     */
+    public double getHeading(int i) {
+        return alpha[i];
+    }
+
+    /**
+     * @param i slot of the plane.
+     * @return number of steps left to reach the destination.
+     */
+    public int getRemainingSteps(int i) {
+        return steps[i];
+    }
+
+    /**
+     * @param i slot of the plane.
+     * @return distance flown on each step towards the destination.
+     */
+    public double getStepLength(int i) {
+        return Math.hypot(incx[i], incy[i]);
+    }
+
+    /**
+     * Straight-line move of a single plane, detached from the table.
+     *
+     * A track holds the same values as the plane's slot, and {@link #advance()}
+     * performs exactly the same arithmetic as {@link Kinematics#move(int)}.
+     * Hence, a copy of a plane's track predicts its position bit by bit for
+     * as long as the plane keeps flying the same move.
+     */
+    public static final class Track implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private double x;
+        private double y;
+        private double destX;
+        private double destY;
+        private double incx;
+        private double incy;
+        private int steps;
+        private boolean moving;
+
+        /**
+         * @return x coordinate of the current position.
+         */
+        public double getX() {
+            return x;
+        }
+
+        /**
+         * @return y coordinate of the current position.
+         */
+        public double getY() {
+            return y;
+        }
+
+        /**
+         * Copy the given track into this one.
+         *
+         * @param other track to copy.
+         */
+        public void set(Track other) {
+            x = other.x;
+            y = other.y;
+            destX = other.destX;
+            destY = other.destY;
+            incx = other.incx;
+            incy = other.incy;
+            steps = other.steps;
+            moving = other.moving;
+        }
+
+        /**
+         * Stop this track, so that its position does not change anymore.
+         */
+        public void stop() {
+            moving = false;
+        }
+
+        /**
+         * Advance the position one step, as {@link Kinematics#move(int)}
+         * would.
+         */
+        public void advance() {
+            if (!moving) {
+                return;
+            }
+            if (--steps <= 0) {
+                x = destX;
+                y = destY;
+            } else {
+                x += incx;
+                y += incy;
+            }
+        }
+    }
+
+}
@@ -38,7 +38,7 @@
 package es.csic.iiia.planes;
 
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
+import java.io.Serializable;
 
 /**
  * Represents a point in the world's space.
@@ -47,7 +47,9 @@ import java.util.ArrayList;
  * @see Space
  * @author Marc Pujol <mpujol at iiia.csic.es>
  */
-public class Location extends Point2D {
+public class Location extends Point2D implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private double x;
     private double y;
@@ -141,97 +143,6 @@ public class Location extends Point2D {
         return blocks;
     }
 
-    /**
-     * Characterizes the regions that the simulation space is broken into by calculating
-     * the corners of all regions given the height, width and block side-length.
-     *
-     * @param blockSize side length of blocks
-     * @param widthRegions width of scenario space in regions
-     * @param heightRegions height of scenario space in regions
-     * @return an array of Locations that identify the locations of each region's corners.
-     *
-     */
-    public static ArrayList<Region> buildRegions(int blockSize, int widthRegions, int heightRegions){
-        double locX, locY;
-        locX = 0;
-        locY = 0;
-
-        ArrayList<Region> regions = new ArrayList<Region>();
-
-        int regionID = 0;
-        for (int i = 0; i < widthRegions; i++) {
-            for (int j = 0; j < heightRegions; j++) {
-                Region r = new Region(new Location(locX, locY), regionID, i, j, blockSize);
-                regions.add(r);
-                locY += 3*blockSize;
-                regionID++;
-            }
-            locX += 3*blockSize;
-            locY = 0;
-        }
-
-        return regions;
-    }
-
-    public static Block[][] buildBlocks(ArrayList<Region> regions, int blockSize) {
-        Block[][] blocks = new Block[regions.size()][9];
-
-        int index = 0;
-        for (Region r: regions) {
-            double locX = r.getCorner().getX();
-            double locY = r.getCorner().getY();
-
-            for (int j = 0; j < 3; j++) {
-                for (int k = 0; k < 3; k++) {
-                    int xLoc = r.getyLoc()*3 + j;
-                    int yLoc = r.getxLoc()*3 + k;
-                    Location blockLoc = new Location(locX+blockSize,locY+blockSize);
-                    blocks[r.getID()][index] = new Block(blockSize, blockLoc, xLoc, yLoc, r.getID());
-                    locY += blockSize;
-                    index++;
-                }
-                locX += blockSize;
-                locY = r.getCorner().getY();
-            }
-            index = 0;
-        }
-
-        return blocks;
-    }
-
-    /**
-     * Continue advancing along a MoveStep plan built with 
-     * {@link #buildMoveStep(Location, double)}.
-     * 
-     * @param step movestep plan to follow.
-     * @return True if the destination has been reached, or false otherwise.
-     */
-    public boolean move(MoveStep step) {
-        return step.move();
-    }
-
-    /**
-     * Returns the movestep plan to reach the desired destination.
-     * <p/>
-     * Because it is usually needed to advance during multiple steps (tenths of
-     * second) to reach the desired destination, this function returns a
-     * MoveStep object. Then, the subsequent steps can be made using
-     * {@link #move(es.csic.iiia.planes.Location.MoveStep)}, which is more
-     * efficient.
-     *
-     * @see MoveStep
-     * @param destination
-     * @param speed
-     * @return MoveStep to reach the given destination.
-     */
-    public MoveStep buildMoveStep(Location destination, double speed) {
-        if (destination == null) {
-            return null;
-        }
-
-        return new MoveStep(destination, speed);
-    }
-
     @Override
     public double getX() {
         return x;
@@ -283,39 +194,4 @@ public class Location extends Point2D {
         x = d;
         y = d1;
     }
-
-    public class MoveStep {
-        public final double dx;
-        public final double dy;
-        public final double alpha;
-        public final double incx;
-        public final double incy;
-        public final Location destination;
-        public int steps;
-
-        public MoveStep(Location destination, double speed) {
-            this.destination = destination;
-            dx = destination.x - x;
-            dy = destination.y - y;
-            alpha = Math.atan2(dy, dx);
-            incx = speed * Math.cos(alpha);
-            incy = speed * Math.sin(alpha);
-
-            final double distance = getDistance(destination);
-            steps = (int)Math.ceil(distance/speed);
-        }
-
-        protected boolean move() {
-            steps--;
-            if (steps <= 0) {
-                x = destination.x;
-                y = destination.y;
-                return true;
-            }
-
-            x += incx;
-            y += incy;
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
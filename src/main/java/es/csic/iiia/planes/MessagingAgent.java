@@ -37,6 +37,7 @@
 package es.csic.iiia.planes;
 
 import es.csic.iiia.planes.messaging.Message;
+import java.util.List;
 
 /**
  * An {@link Agent} that communicates with other agents using message passing.
@@ -77,4 +78,12 @@ public interface MessagingAgent extends Agent, Positioned, Comparable {
      */
     public void receive(Message message);
 
+    /**
+     * Receive several messages at once, as if {@link #receive(Message)} was
+     * called for each of them in order.
+     *
+     * @param messages messages received.
+     */
+    public void receiveAll(List<Message> messages);
+
 }
\ No newline at end of file
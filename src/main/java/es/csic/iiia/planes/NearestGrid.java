@@ -0,0 +1,214 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.List;
+
+/**
+ * Precomputed nearest-neighbor lookup over a fixed set of positioned
+ * elements, such as the charging stations or the operators.
+ *
+ * The space is split in a uniform grid, and each cell keeps the (few)
+ * elements that may be the nearest one to some point inside of it. Hence,
+ * a query only has to check the candidates of the cell where the point
+ * lies instead of every element. Points outside the space fall back to
+ * checking all the elements.
+ *
+ * Candidates are checked in the same order as they appear in the indexed
+ * list, so ties are broken exactly as a linear scan of that list would.
+ * The indexed elements must not move while the index is in use.
+ *
+ * @param <T> type of the indexed elements.
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+final class NearestGrid<T extends Positioned> {
+
+    /**
+     * Maximum number of cells along each axis.
+     */
+    private static final int MAX_CELLS = 64;
+
+    /**
+     * Relative slack when pruning candidates, to absorb rounding errors.
+     */
+    private static final double SLACK = 1e-9;
+
+    private final List<T> elements;
+
+    private final int columns;
+    private final int rows;
+    private final double width;
+    private final double height;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    /** Indices of the candidate elements of each cell, in ascending order */
+    private final int[][] candidates;
+    /** Indices of all the elements */
+    private final int[] all;
+
+    /**
+     * Build a new lookup over the given elements.
+     *
+     * @param elements elements to index. This list must not change while the
+     *                 index is in use.
+     * @param space space where the elements are located.
+     */
+    public NearestGrid(List<T> elements, Space space) {
+        this.elements = elements;
+        final int n = elements.size();
+
+        all = new int[n];
+        for (int i=0; i<n; i++) {
+            all[i] = i;
+        }
+
+        width = Math.max(1, space.getWidth());
+        height = Math.max(1, space.getHeight());
+        // A handful of cells per element is enough to leave very few
+        // candidates in each of them.
+        final int side = n <= 1 ? 1
+                : (int)Math.min(MAX_CELLS, 4*Math.ceil(Math.sqrt(n)));
+        columns = side;
+        rows = side;
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+
+        candidates = new int[columns*rows][];
+        final double[] xs = new double[n], ys = new double[n];
+        for (int i=0; i<n; i++) {
+            final Location l = elements.get(i).getLocation();
+            xs[i] = l.getX();
+            ys[i] = l.getY();
+        }
+        final double[] minDist = new double[n];
+        for (int c=0; c<columns; c++) {
+            for (int r=0; r<rows; r++) {
+                candidates[c*rows + r] = computeCandidates(c, r, xs, ys, minDist);
+            }
+        }
+    }
+
+    /**
+     * Compute the elements that may be the nearest one to some point of the
+     * given cell.
+     *
+     * An element can only be the nearest one if its minimum (squared) distance
+     * to the cell does not exceed the smallest maximum distance from any
+     * element to that cell.
+     */
+    private int[] computeCandidates(int c, int r, double[] xs, double[] ys,
+            double[] minDist) {
+        final int n = xs.length;
+        final double x0 = c*cellWidth, x1 = (c+1)*cellWidth;
+        final double y0 = r*cellHeight, y1 = (r+1)*cellHeight;
+
+        double bound = Double.MAX_VALUE;
+        for (int i=0; i<n; i++) {
+            final double dx = Math.max(Math.max(x0 - xs[i], 0), xs[i] - x1);
+            final double dy = Math.max(Math.max(y0 - ys[i], 0), ys[i] - y1);
+            minDist[i] = dx*dx + dy*dy;
+            final double fx = Math.max(Math.abs(xs[i] - x0), Math.abs(xs[i] - x1));
+            final double fy = Math.max(Math.abs(ys[i] - y0), Math.abs(ys[i] - y1));
+            bound = Math.min(bound, fx*fx + fy*fy);
+        }
+        bound += bound*SLACK + SLACK;
+
+        int count = 0;
+        for (int i=0; i<n; i++) {
+            if (minDist[i] <= bound) {
+                count++;
+            }
+        }
+        final int[] result = new int[count];
+        for (int i=0, k=0; i<n; i++) {
+            if (minDist[i] <= bound) {
+                result[k++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of elements indexed by this lookup.
+     *
+     * @return number of indexed elements.
+     */
+    public int size() {
+        return all.length;
+    }
+
+    /**
+     * Find the element nearest to the given location.
+     *
+     * @param location location of the query.
+     * @return nearest element, or <em>null</em> if there are no elements.
+     */
+    public T nearest(Location location) {
+        final double x = location.getX(), y = location.getY();
+        final int[] members;
+        if (x >= 0 && x <= width && y >= 0 && y <= height) {
+            members = candidates[column(x)*rows + row(y)];
+        } else {
+            members = all;
+        }
+
+        double mind = Double.MAX_VALUE;
+        T best = null;
+        for (int i : members) {
+            final T e = elements.get(i);
+            final double d = location.getDistance(e.getLocation());
+            if (d < mind) {
+                best = e;
+                mind = d;
+            }
+        }
+        return best;
+    }
+
+    private int column(double x) {
+        final int c = (int)Math.floor(x / cellWidth);
+        return c >= columns ? columns-1 : c;
+    }
+
+    private int row(double y) {
+        final int r = (int)Math.floor(y / cellHeight);
+        return r >= rows ? rows-1 : r;
+    }
+
+}
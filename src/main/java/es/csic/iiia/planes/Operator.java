@@ -60,9 +60,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class Operator extends AbstractMessagingAgent implements Drawable {
 
-    private static AtomicInteger idGenerator = new AtomicInteger();
+    private static final long serialVersionUID = 1L;
 
-    private int id = idGenerator.incrementAndGet();
+    /**
+     * Generator of provisional identifiers, for operators that do not belong
+     * to any world.
+     */
+    private static AtomicInteger idGenerator = new AtomicInteger();
 
     /**
      * List of the definitions of all the tasks that this operator will submit
@@ -103,6 +107,7 @@ public class Operator extends AbstractMessagingAgent implements Drawable {
      */
     public Operator(Location position, List<DTask> tasks) {
         super(position);
+        setId(idGenerator.incrementAndGet());
         this.tasks = tasks;
         Collections.sort(this.tasks, new TaskSorter());
         nextTaskTime = this.tasks.get(0).getTime();
@@ -129,6 +134,12 @@ public class Operator extends AbstractMessagingAgent implements Drawable {
         this.strategy = strategy;
     }
 
+    @Override
+    public void setWorld(World world) {
+        super.setWorld(world);
+        setId(world.nextId(Operator.class));
+    }
+
     /**
      * Do nothing, because no step initialization is needed by the operator.
      */
@@ -204,33 +215,14 @@ public class Operator extends AbstractMessagingAgent implements Drawable {
     private Task createTask(DTask nt) {
         Location l = new Location(nt.getX(), nt.getY());
         Task t = getWorld().getFactory().buildTask(l);
-        Block nearest = null;
-        Block[][] blockCopy = getWorld().getBlocks().clone();
-
-        int regionIndex = 0;
-        int blockIndex = 0;
-        int indx1 = 0;
-        int indx2;
-        for(Block[] r: blockCopy) {
-            indx2 = 0;
-            for (Block b: r) {
-                Location bCenter = b.getCenter();
-                if (nearest == null) {
-                    nearest = b;
-                    regionIndex = indx1;
-                    blockIndex = indx2;
-                }
-                else if (bCenter.getDistance(l) < nearest.getCenter().getDistance(l) && !b.hasSurvivor()) {
-                    nearest = b;
-                    regionIndex = indx1;
-                    blockIndex = indx2;
-                }
-                indx2++;
-            }
-            indx1++;
+        // Nearest free block, unless the very first block is at least as near
+        final Block first = getWorld().getSearchGrid().getBlock(0);
+        Block nearest = getWorld().getNearestFreeBlock(l, first.getCenter().getDistance(l));
+        if (nearest == null) {
+            nearest = first;
         }
 
-        getWorld().getBlocks()[regionIndex][blockIndex].setSurvivor(t);
+        nearest.setSurvivor(t);
         return t;
     }
 
@@ -284,7 +276,7 @@ public class Operator extends AbstractMessagingAgent implements Drawable {
             return -1;
         }
         if (t instanceof Operator) {
-            return id - ((Operator)t).id;
+            return getId() - ((Operator)t).getId();
         }
 
         return 1;
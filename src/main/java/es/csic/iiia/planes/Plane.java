@@ -215,6 +215,14 @@ public interface Plane extends MessagingAgent {
      */
     public boolean move();
 
+    /**
+     * Get the straight-line move that this plane is currently flying.
+     *
+     * @see Kinematics.Track
+     * @param track track where to copy the plane's move.
+     */
+    public void getTrack(Kinematics.Track track);
+
     /***************************************************************************
      * STATISTICS TRACKING
      **************************************************************************/
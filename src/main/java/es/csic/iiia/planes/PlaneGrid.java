@@ -0,0 +1,238 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid index of the planes' positions.
+ *
+ * The space is split in square-ish cells whose side is (at least) the largest
+ * communication range of any plane, so that a broadcast only needs to look
+ * at the cells that overlap the sender's range instead of at every plane.
+ * Planes must report their movements through {@link #update(Plane)} so that
+ * the index is always in sync with their actual positions.
+ *
+ * Queries return the planes in the same order as they appear in the world's
+ * list of planes, so message delivery order does not depend on the index.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+final class PlaneGrid {
+
+    /**
+     * Maximum number of cells along each axis, to keep the grid small when
+     * communication ranges are tiny with respect to the space.
+     */
+    private static final int MAX_CELLS = 256;
+
+    private final List<Plane> planes;
+    private final Map<Plane, Integer> indices;
+
+    private final int columns;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    /** Indices of the planes in each cell */
+    private final int[][] cells;
+    /** Number of planes in each cell */
+    private final int[] counts;
+    /** Cell where each plane is currently placed */
+    private final int[] cellOf;
+    /** Position of each plane within its cell */
+    private final int[] slotOf;
+
+    /**
+     * Build a new grid indexing the given planes.
+     *
+     * @param planes planes to index. This list must not change while the
+     *               index is in use.
+     * @param space space where the planes fly.
+     */
+    public PlaneGrid(List<Plane> planes, Space space) {
+        this.planes = planes;
+        final int n = planes.size();
+        indices = new HashMap<Plane, Integer>(n*2);
+
+        double range = 0;
+        for (int i=0; i<n; i++) {
+            final Plane p = planes.get(i);
+            indices.put(p, i);
+            range = Math.max(range, p.getCommunicationRange());
+        }
+
+        final double width = Math.max(1, space.getWidth());
+        final double height = Math.max(1, space.getHeight());
+        columns = numCells(width, range);
+        rows = numCells(height, range);
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+
+        cells = new int[columns*rows][];
+        counts = new int[columns*rows];
+        cellOf = new int[n];
+        slotOf = new int[n];
+
+        for (int i=0; i<n; i++) {
+            insert(i, cell(planes.get(i).getLocation()));
+        }
+    }
+
+    private static int numCells(double extent, double range) {
+        if (!(range > 0) || range >= extent) {
+            return 1;
+        }
+        return (int)Math.min(MAX_CELLS, Math.ceil(extent / range));
+    }
+
+    /**
+     * Get the position of the given plane in the world's list of planes.
+     *
+     * @param p plane to look for.
+     * @return index of the plane, or -1 if it is not indexed.
+     */
+    public int indexOf(Plane p) {
+        final Integer idx = indices.get(p);
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * Get the number of planes indexed by this grid.
+     *
+     * @return number of indexed planes.
+     */
+    public int size() {
+        return cellOf.length;
+    }
+
+    /**
+     * Update the position of the given plane in the index.
+     *
+     * @param p plane that has moved.
+     */
+    public void update(Plane p) {
+        final Integer idx = indices.get(p);
+        if (idx == null) {
+            return;
+        }
+
+        final int i = idx;
+        final int c = cell(p.getLocation());
+        if (c != cellOf[i]) {
+            remove(i);
+            insert(i, c);
+        }
+    }
+
+    /**
+     * Find the planes located at most <em>range</em> meters away from the
+     * given origin.
+     *
+     * The indices of the matching planes (within the world's list of planes)
+     * are stored in ascending order at the beginning of the given buffer,
+     * which must be able to hold {@link #size()} elements.
+     *
+     * @param origin origin of the query.
+     * @param range maximum distance from the origin.
+     * @param result buffer where to store the indices of the planes found.
+     * @return number of planes found.
+     */
+    public int query(Location origin, double range, int[] result) {
+        final int c0 = column(origin.getX() - range), c1 = column(origin.getX() + range);
+        final int r0 = row(origin.getY() - range), r1 = row(origin.getY() + range);
+
+        int found = 0;
+        for (int c=c0; c<=c1; c++) {
+            for (int r=r0; r<=r1; r++) {
+                final int cell = c*rows + r;
+                final int[] members = cells[cell];
+                for (int k=0, len=counts[cell]; k<len; k++) {
+                    final int i = members[k];
+                    if (origin.distance(planes.get(i).getLocation()) <= range) {
+                        result[found++] = i;
+                    }
+                }
+            }
+        }
+
+        // Cells do not keep their members sorted
+        Arrays.sort(result, 0, found);
+        return found;
+    }
+
+    private int column(double x) {
+        final int c = (int)Math.floor(x / cellWidth);
+        return c < 0 ? 0 : (c >= columns ? columns-1 : c);
+    }
+
+    private int row(double y) {
+        final int r = (int)Math.floor(y / cellHeight);
+        return r < 0 ? 0 : (r >= rows ? rows-1 : r);
+    }
+
+    private int cell(Location l) {
+        return column(l.getX())*rows + row(l.getY());
+    }
+
+    private void insert(int i, int cell) {
+        int[] members = cells[cell];
+        if (members == null) {
+            members = new int[4];
+            cells[cell] = members;
+        } else if (counts[cell] == members.length) {
+            members = Arrays.copyOf(members, members.length*2);
+            cells[cell] = members;
+        }
+        slotOf[i] = counts[cell];
+        members[counts[cell]++] = i;
+        cellOf[i] = cell;
+    }
+
+    private void remove(int i) {
+        final int cell = cellOf[i];
+        final int[] members = cells[cell];
+        final int last = members[--counts[cell]];
+        members[slotOf[i]] = last;
+        slotOf[last] = slotOf[i];
+    }
+
+}
@@ -48,6 +48,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  */
 public class ProgressWorld extends AbstractWorld {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Queue used to hold percentages of completion until they are ready
      * to be displayed.
@@ -1,60 +1,85 @@
 package es.csic.iiia.planes;
 
+import java.io.Serializable;
+
 /**
  * Class that describes a region, its location and state in space,
  * its identifier (for faster lookup), and positioning
  * relative to other regions.
  * Created by Guillermo Bautista on 12/12/2015.
+ * <p/>
+ * Regions are lightweight views over the state kept by the world's
+ * {@link SearchGrid}, so two views of the same region are equal.
  */
-public class Region {
-
-    private Location corner;
+public final class Region implements Serializable {
 
-    private Location center;
+    private static final long serialVersionUID = 1L;
 
     public enum regionState {
         UNASSIGNED, ASSIGNED, EXPLORED, RE_EXPLORED
     }
 
-    private regionState state;
-
-    private int id;
-
-    private int xLoc, yLoc;
+    private final SearchGrid grid;
 
-    private int tasksFound;
+    private final int id;
 
-    public Region(Location location, int id, int xLoc, int yLoc, int blockSize) {
-        corner = location;
-        center = new Location(corner.getX()+1.5*blockSize, corner.getY()+1.5*blockSize);
-
-        state = regionState.UNASSIGNED;
+    Region(SearchGrid grid, int id) {
+        this.grid = grid;
         this.id = id;
-        this.xLoc = xLoc;
-        this.yLoc = yLoc;
-        tasksFound = 0;
     }
 
+    public Location getCorner() { return grid.getRegionCorner(id); }
 
-    public Location getCorner() { return corner; }
-
-    public Location getCenter() { return center; }
+    public Location getCenter() { return grid.getRegionCenter(id); }
 
-    public void taskFound() { tasksFound++; }
+    public void taskFound() { grid.taskFound(id); }
 
-    public int getTasksFound() { return tasksFound; }
+    public int getTasksFound() { return grid.getTasksFound(id); }
 
     public int getID()  { return id; }
 
     public int getyLoc() {
-        return yLoc;
+        return grid.getRegionY(id);
     }
 
     public int getxLoc() {
-        return xLoc;
+        return grid.getRegionX(id);
+    }
+
+    public regionState getState() { return grid.getRegionState(id); }
+
+    public void setState(regionState state) { grid.setRegionState(id, state); }
+
+    /**
+     * Get the number of blocks of this region that are in the given state.
+     *
+     * @param state block state.
+     * @return number of blocks in that state.
+     */
+    public int getBlockCount(Block.blockState state) {
+        return grid.getBlockCount(id, state);
     }
 
-    public regionState getState() { return state; }
+    /**
+     * Get the blocks of this region.
+     *
+     * @return views of the blocks of this region.
+     */
+    public Block[] getBlocks() {
+        return grid.getBlocks(id);
+    }
 
-    public void setState(regionState state) { this.state = state; }
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Region)) {
+            return false;
+        }
+        final Region other = (Region)o;
+        return id == other.id && grid == other.grid;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
 }
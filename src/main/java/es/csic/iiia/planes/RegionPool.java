@@ -0,0 +1,301 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import es.csic.iiia.planes.util.FenwickTree;
+import es.csic.iiia.planes.util.IndexedMaxHeap;
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * Index of the world's unassigned regions.
+ * <p/>
+ * Regions are laid out in a {@link SearchGrid}, and numbered column by
+ * column (all the regions with the same x position, sorted by their y
+ * position). The index counts the unassigned regions in a
+ * {@link FenwickTree}, which is kept up to date by the grid whenever their
+ * state changes. Since the regions of a column that lie within some
+ * distance of a point are numbered contiguously, drawing a random
+ * unassigned region near a point only needs a couple of logarithmic
+ * searches per column instead of a scan over all the regions.
+ * <p/>
+ * Random draws pick the same region as drawing a random position from a
+ * list of the matching regions, in the world's order, would.
+ * <p/>
+ * The index also keeps the regions that are not explored yet in a max-heap
+ * keyed on the number of tasks found in them, so that rescuers can pick the
+ * most crowded one without going through all the regions.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class RegionPool implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SearchGrid grid;
+    private final int columns;
+    private final int rows;
+    private final FenwickTree unassigned;
+
+    /**
+     * Positions of the regions that are not explored, keyed on the number of
+     * tasks found in them.
+     */
+    private final IndexedMaxHeap unexplored;
+
+    /**
+     * Build a new index of the regions of the given grid, which will keep
+     * it up to date from then on.
+     *
+     * @param grid grid of regions to index.
+     */
+    public RegionPool(SearchGrid grid) {
+        this.grid = grid;
+        final int n = grid.getRegionCount();
+        rows = grid.getHeightRegions();
+        columns = grid.getWidthRegions();
+        unassigned = new FenwickTree(n);
+        unexplored = new IndexedMaxHeap(n);
+
+        for (int i=0; i<n; i++) {
+            final Region.regionState state = grid.getRegionState(i);
+            if (state == Region.regionState.UNASSIGNED) {
+                unassigned.add(i, 1);
+            }
+            if (state != Region.regionState.EXPLORED) {
+                unexplored.put(i, grid.getTasksFound(i));
+            }
+        }
+        grid.setRegionPool(this);
+    }
+
+    /**
+     * Update the index after a region has changed its state.
+     *
+     * @param id number of the region whose state has changed.
+     * @param previous previous state of the region.
+     * @param state new state of the region.
+     */
+    void stateChanged(int id, Region.regionState previous, Region.regionState state) {
+        final boolean was = previous == Region.regionState.UNASSIGNED;
+        final boolean is = state == Region.regionState.UNASSIGNED;
+        if (was != is) {
+            unassigned.add(id, is ? 1 : -1);
+        }
+
+        final boolean wasExplored = previous == Region.regionState.EXPLORED;
+        final boolean isExplored = state == Region.regionState.EXPLORED;
+        if (wasExplored != isExplored) {
+            if (isExplored) {
+                unexplored.remove(id);
+            } else {
+                unexplored.put(id, grid.getTasksFound(id));
+            }
+        }
+    }
+
+    /**
+     * Update the index after a task has been found in a region.
+     *
+     * @param id number of the region where the task has been found.
+     */
+    void tasksFoundChanged(int id) {
+        if (unexplored.contains(id)) {
+            unexplored.put(id, grid.getTasksFound(id));
+        }
+    }
+
+    /**
+     * Get the number of regions that are not explored yet.
+     *
+     * @return number of unexplored regions.
+     */
+    public int unexploredSize() {
+        return unexplored.size();
+    }
+
+    /**
+     * Get the unexplored region where most tasks have been found, breaking
+     * ties in favor of the first one in the world's order.
+     *
+     * @return the most crowded unexplored region, or <em>null</em> if all
+     *         regions are explored.
+     */
+    public Region mostCrowdedUnexplored() {
+        final int top = unexplored.peek();
+        return top < 0 ? null : grid.getRegion(top);
+    }
+
+    /**
+     * Get the number of unassigned regions.
+     *
+     * @return number of unassigned regions.
+     */
+    public int size() {
+        return unassigned.total();
+    }
+
+    /**
+     * Draw a random unassigned region.
+     *
+     * @param rnd random number generator.
+     * @return a random unassigned region, or <em>null</em> if there is none.
+     */
+    public Region random(Random rnd) {
+        final int n = unassigned.total();
+        if (n == 0) {
+            return null;
+        }
+        return grid.getRegion(unassigned.select(rnd.nextInt(n)));
+    }
+
+    /**
+     * Draw a random unassigned region whose center is less than the given
+     * distance away from the given location.
+     *
+     * @param location location.
+     * @param distance maximum (exclusive) distance to the region's center.
+     * @param rnd random number generator.
+     * @return a random unassigned region near the location, or <em>null</em>
+     *         if there is none.
+     */
+    public Region randomWithin(Location location, double distance, Random rnd) {
+        int n = 0;
+        for (int c=0; c<columns; c++) {
+            final long range = range(c, location, distance);
+            if (range >= 0) {
+                n += unassigned.sum(from(c, range), to(c, range));
+            }
+        }
+        if (n == 0) {
+            return null;
+        }
+
+        int k = rnd.nextInt(n);
+        for (int c=0; c<columns; c++) {
+            final long range = range(c, location, distance);
+            if (range < 0) {
+                continue;
+            }
+            final int from = from(c, range);
+            final int count = unassigned.sum(from, to(c, range));
+            if (k < count) {
+                return grid.getRegion(unassigned.select(unassigned.prefix(from) + k));
+            }
+            k -= count;
+        }
+        throw new IllegalStateException("Inconsistent region index.");
+    }
+
+    private int from(int column, long range) {
+        return column*rows + (int)(range >>> 32);
+    }
+
+    private int to(int column, long range) {
+        return column*rows + (int)range + 1;
+    }
+
+    /**
+     * Find the regions of a column whose center is less than the given
+     * distance away from the given location.
+     *
+     * @return -1 if there are none, or the first and last row of the
+     *         matching regions packed in a long.
+     */
+    private long range(int column, Location l, double distance) {
+        final int base = column*rows;
+        final int len = rows;
+
+        // First row whose center lies above the location. The distance
+        // decreases up to it, and increases from it.
+        int lo = 0, hi = len;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (grid.getRegionCenterY(base + mid) < l.getY()) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        final int split = lo;
+        final boolean below = split > 0 && within(base + split - 1, l, distance);
+        final boolean above = split < len && within(base + split, l, distance);
+        if (!below && !above) {
+            return -1;
+        }
+
+        int first = split;
+        if (below) {
+            lo = 0;
+            hi = split - 1;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (within(base + mid, l, distance)) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            first = lo;
+        }
+
+        int last = split - 1;
+        if (above) {
+            lo = split;
+            hi = len - 1;
+            while (lo < hi) {
+                final int mid = (lo + hi + 1) >>> 1;
+                if (within(base + mid, l, distance)) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            last = lo;
+        }
+
+        return ((long)first << 32) | last;
+    }
+
+    private boolean within(int i, Location l, double distance) {
+        final double dx = l.getX() - grid.getRegionCenterX(i);
+        final double dy = l.getY() - grid.getRegionCenterY(i);
+        return Math.sqrt(dx*dx + dy*dy) < distance;
+    }
+
+}
@@ -14,7 +14,9 @@ import java.util.logging.Level;
  *
  * @author Guillermo Bautista <gbau at mit.edu>
  */
-public class SARPlane extends AbstractPlane {
+public class SARPlane extends AbstractPlane implements Reconfigurable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * Current plane state
@@ -37,6 +39,12 @@ public class SARPlane extends AbstractPlane {
      */
     private long standbyEnergy;
 
+    /**
+     * Battery capacity that the eagle and standby energy levels are relative
+     * to, taken when the battery is set.
+     */
+    private long referenceCapacity;
+
     /**
      * Number of blocks that a Plane tries to stay away from other
      * active UAV's while in Eagle or Scout mode.
@@ -126,11 +134,7 @@ public class SARPlane extends AbstractPlane {
     @Override
     public void initialize() {
         super.initialize();
-        searchPowerPenalty = getWorld().getConfig().getSearchPowerPenalty();
-        searchTimePenalty = getWorld().getConfig().getSearchTimePenalty();
-        rescuePowerPenalty = getWorld().getConfig().getRescuePowerPenalty();
-        rescueTimePenalty = getWorld().getConfig().getRescueTimePenalty();
-        rescueTime = getWorld().getConfig().getRescueTime();
+        readConfiguration();
 
         if(initialized) {
             if (type == Type.SCOUT) {
@@ -148,6 +152,33 @@ public class SARPlane extends AbstractPlane {
     }
 
 
+    /**
+     * Reads the penalties and the rescue time from the world's configuration.
+     */
+    private void readConfiguration() {
+        searchPowerPenalty = getWorld().getConfig().getSearchPowerPenalty();
+        searchTimePenalty = getWorld().getConfig().getSearchTimePenalty();
+        rescuePowerPenalty = getWorld().getConfig().getRescuePowerPenalty();
+        rescueTimePenalty = getWorld().getConfig().getRescueTimePenalty();
+        rescueTime = getWorld().getConfig().getRescueTime();
+    }
+
+    /**
+     * Reads the eagle and standby energy levels from the world's
+     * configuration.
+     */
+    private void readPowerLevels() {
+        setEagleEnergy((long)(getWorld().getConfig().getEaglePower()*referenceCapacity));
+        setStandbyEnergy((long)(getWorld().getConfig().getStandbyPower()*referenceCapacity));
+    }
+
+    @Override
+    public void reconfigure() {
+        readConfiguration();
+        readPowerLevels();
+        getBehavior(LIAMBehavior.class).readConfiguration();
+    }
+
     /**
      * Get the type of this plane.
      *
@@ -198,15 +229,15 @@ public class SARPlane extends AbstractPlane {
     public void setBattery(Battery battery) {
         super.setBattery(battery);
         //TODO: Maybe just have method for getting configuration from factory
-        setEagleEnergy((long)(getWorld().getConfig().getEaglePower()*battery.getCapacity()));
-        setStandbyEnergy((long)(getWorld().getConfig().getStandbyPower()*battery.getCapacity()));
+        referenceCapacity = battery.getCapacity();
+        readPowerLevels();
     }
 
     @Override
     public List<Location> getPlannedLocations() {
         List<Location> plannedLocations = new ArrayList<Location>();
 
-        plannedLocations.add(getCurrentDestination().destination);
+        plannedLocations.add(getCurrentDestination());
         return plannedLocations;
     }
 
@@ -438,17 +469,9 @@ public class SARPlane extends AbstractPlane {
     }
 
     private void checkRegionExplored() {
-        boolean remainingAssignment = false;
-        boolean explored = true;
-        for (Block b:getWorld().getBlocks()[nextRegion.getID()]) {
-            if (b.getState() == Block.blockState.ASSIGNED) {
-                remainingAssignment = true;
-                explored = false;
-            }
-            if (b.getState() == Block.blockState.UNASSIGNED) {
-                explored = false;
-            }
-        }
+        final boolean remainingAssignment = nextRegion.getBlockCount(Block.blockState.ASSIGNED) > 0;
+        final boolean explored = !remainingAssignment
+                && nextRegion.getBlockCount(Block.blockState.UNASSIGNED) == 0;
         if((type == Type.EAGLE || type == Type.RESCUER) && !explored && !remainingAssignment){
             nextRegion.setState(Region.regionState.UNASSIGNED);
             return;
@@ -503,20 +526,14 @@ public class SARPlane extends AbstractPlane {
      */
     private void taskCompleted(Block b) {
         if(type == Type.EAGLE || type == Type.SCOUT) {
-            for (Block[] blocks : getWorld().getBlocks()) {
-                for (Block block : blocks) {
-                    if (block.getId() == b.getId()) {
-                        block.setState(Block.blockState.EXPLORED);
-                    }
-                }
-            }
+            b.setState(Block.blockState.EXPLORED);
         }
     }
 
     protected void taskCompleted(Task t) {}
 
     private void setNextBlockBasic() {
-        Random rnd = new Random();
+        Random rnd = getRandom();
         if (getWorld().getUnassignedBlocks().size() < 1){
             idleAction();
             return;
@@ -535,37 +552,22 @@ public class SARPlane extends AbstractPlane {
      *
      */
     private boolean setNextRegion() {
-        List<Region> regionsNear = new ArrayList<Region>();
-        List<Region> regionsFar = new ArrayList<Region>();
+        final RegionPool pool = getWorld().getUnassignedRegions();
+        final Random rnd = getRandom();
 
-        Random rnd = new Random();
-
-
-        for (Region r:getWorld().getRegions()) {
-            if (r.getState()== Region.regionState.UNASSIGNED) {
-                //TODO: Set this jump preference in Configuration
-                if (this.getLocation().getDistance(r.getCenter()) < scoutJumpDistance) {
-                    regionsNear.add(r);
-                }
-                else {
-                    regionsFar.add(r);
-                }
-            }
+        // Prefer the regions near the plane, if there are any left
+        //TODO: Set this jump preference in Configuration
+        Region r = pool.randomWithin(getLocation(), scoutJumpDistance, rnd);
+        if (r == null) {
+            r = pool.random(rnd);
         }
-
-        if (!regionsNear.isEmpty()) {
-            nextRegion = regionsNear.remove(rnd.nextInt(regionsNear.size()));
-            nextRegion.setState(Region.regionState.ASSIGNED);
-            return true;
-        }
-        else if (!regionsFar.isEmpty()) {
-            nextRegion = regionsFar.remove(rnd.nextInt(regionsFar.size()));
-            nextRegion.setState(Region.regionState.ASSIGNED);
-            return true;
-        }
-        else {
+        if (r == null) {
             return false;
         }
+
+        nextRegion = r;
+        nextRegion.setState(Region.regionState.ASSIGNED);
+        return true;
     }
 
     /**
@@ -582,9 +584,11 @@ public class SARPlane extends AbstractPlane {
     private boolean setNextBlock(Region r) {
 
         //First check if region we are attempting to get a block from is fully assigned:
+        if (r.getBlockCount(Block.blockState.UNASSIGNED) == 0) {
+            return false;
+        }
         List<Block> availableBlocks = new ArrayList<Block>();
-        int id = r.getID();
-        for (Block block:getWorld().getBlocks()[id]) {
+        for (Block block:r.getBlocks()) {
             if (block.getState()== Block.blockState.UNASSIGNED) {
                 availableBlocks.add(block);
             }
@@ -593,7 +597,7 @@ public class SARPlane extends AbstractPlane {
             return false;
         }
         else {
-            Random rand = new Random();
+            Random rand = getRandom();
             nextBlock = availableBlocks.get(rand.nextInt(availableBlocks.size()));
             getWorld().getUnassignedBlocks().remove(nextBlock);
 
@@ -629,7 +633,7 @@ public class SARPlane extends AbstractPlane {
         List<Block> blocksTried = new ArrayList<Block>();
         List<Block> blocksNear = new ArrayList<Block>();
         List<Block> blocksFar = new ArrayList<Block>();
-        Random rnd = new Random();
+        Random rnd = getRandom();
 
         while (!getWorld().getUnassignedBlocks().isEmpty() && blocksNear.size() < 1 && blocksFar.size() < 10) {
             Block b = getWorld().getUnassignedBlocks().remove(rnd.nextInt(getWorld().getUnassignedBlocks().size()));
@@ -660,7 +664,7 @@ public class SARPlane extends AbstractPlane {
             for (Block tried: blocksTried) {
                 getWorld().getUnassignedBlocks().add(tried);
             }
-            nextRegion = getWorld().getRegions().get(nextBlock.getRegion());
+            nextRegion = getWorld().getSearchGrid().getRegion(nextBlock.getRegion());
             nextRegion.setState(Region.regionState.ASSIGNED);
             return true;
         }
@@ -674,7 +678,7 @@ public class SARPlane extends AbstractPlane {
             for (Block tried: blocksTried) {
                 getWorld().getUnassignedBlocks().add(tried);
             }
-            nextRegion = getWorld().getRegions().get(nextBlock.getRegion());
+            nextRegion = getWorld().getSearchGrid().getRegion(nextBlock.getRegion());
             nextRegion.setState(Region.regionState.ASSIGNED);
             return true;
         }
@@ -711,6 +715,19 @@ public class SARPlane extends AbstractPlane {
     //TODO: Double check if this is how Heba wants crowd distance control.
     private boolean crowdCheck(Block b) {
 
+        // Blocks closer than the crowd distance, counted in logarithmic time.
+        final int d = getEagleCrowdDistance();
+        if (getWorld().getAssignedBlocks().countWithin(b.getxLoc(), b.getyLoc(), d - 1) == 0) {
+            return true;
+        }
+        // The scan below leaves out the last row and column of the grid, so
+        // it can only disagree with the index when the block is near them.
+        final SearchGrid grid = getWorld().getSearchGrid();
+        if (b.getxLoc() + d - 1 < grid.getBlockColumns() - 1
+                && b.getyLoc() + d - 1 < grid.getBlockRows() - 1) {
+            return false;
+        }
+
         int leftBound = b.getxLoc() - getEagleCrowdDistance();
         int rightBound = b.getxLoc() + getEagleCrowdDistance() + 1;
         int lowerBound = b.getyLoc() - getEagleCrowdDistance();
@@ -719,19 +736,19 @@ public class SARPlane extends AbstractPlane {
         if(leftBound < 0) {
             leftBound = 0;
         }
-        if(rightBound >= getWorld().getBlockGrid().length) {
-            rightBound = getWorld().getBlockGrid().length - 1;
+        if(rightBound >= grid.getBlockColumns()) {
+            rightBound = grid.getBlockColumns() - 1;
         }
         if(lowerBound < 0) {
             lowerBound = 0;
         }
-        if(upperBound >= getWorld().getBlockGrid().length) {
-            upperBound = getWorld().getBlockGrid().length - 1;
+        if(upperBound >= grid.getBlockRows()) {
+            upperBound = grid.getBlockRows() - 1;
         }
 
         for (int i = leftBound; i < rightBound; i++) {
             for (int j = lowerBound; j < upperBound; j++) {
-                Block a = getWorld().getBlockGrid()[i][j];
+                Block a = grid.getBlockAt(i, j);
                 if (Math.abs(a.getxLoc()-b.getxLoc())+Math.abs(a.getyLoc()-b.getyLoc()) < getEagleCrowdDistance() &&
                         a.getState() == Block.blockState.ASSIGNED) {
                     return false;
@@ -751,7 +768,7 @@ public class SARPlane extends AbstractPlane {
 
     protected void setNextBlockStandby(Block b) {
         nextBlock = b;
-        nextRegion = getWorld().getRegions().get(b.getRegion());
+        nextRegion = getWorld().getSearchGrid().getRegion(b.getRegion());
         setDestination(b.getCenter());
     }
 
@@ -768,33 +785,20 @@ public class SARPlane extends AbstractPlane {
     private void setNextBlockRescue() {
 
         //boolean allExplored = true;
-        List<Region> regionsUnexplored = new ArrayList<Region>();
-        int maxCrowded = -1;
-
-        for (Region r: getWorld().getRegions()) {
-            if (r.getState() != Region.regionState.EXPLORED) {
-                regionsUnexplored.add(r);
-                if(r.getTasksFound() > maxCrowded) {
-                    nextRegion = r;
-                    maxCrowded = r.getTasksFound();
-                }
-            }
-        }
-
-        if (regionsUnexplored.isEmpty()) {
-            nextRegion = null;
+        nextRegion = getWorld().getUnassignedRegions().mostCrowdedUnexplored();
+        if (nextRegion == null) {
             nextBlock = null;
             return;
         }
 
         List<Block> searchList = new ArrayList<Block>();
-        for (Block b: getWorld().getBlocks()[nextRegion.getID()]) {
+        for (Block b: nextRegion.getBlocks()) {
             if (b.getState() != Block.blockState.EXPLORED) {
                 searchList.add(b);
             }
         }
 
-        Random rnd = new Random();
+        Random rnd = getRandom();
         nextBlock = searchList.get(rnd.nextInt(searchList.size()));
         getWorld().getUnassignedBlocks().remove(nextBlock);
 
@@ -833,7 +837,10 @@ public class SARPlane extends AbstractPlane {
      */
     private void triggerTaskFound(Block b) {
         Task t = b.getSurvivor();
-        getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        if (getLog().isLoggable(Level.FINE)) {
+            getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        }
+        trace(EVENT_FINDS, t);
         getCompletedLocations().add(t.getLocation());
         getWorld().foundTask(t);
         //TODO: Change to set as discovered and send standby
@@ -858,7 +865,10 @@ public class SARPlane extends AbstractPlane {
      */
     private void triggerTaskCompleted(Block b) {
         Task t = b.getSurvivor();
-        getLog().log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        if (getLog().isLoggable(Level.FINE)) {
+            getLog().log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        }
+        trace(EVENT_COMPLETES, t);
         getCompletedLocations().add(t.getLocation());
         if (getType() != Type.STANDBY) {
             getWorld().foundTask(t);
@@ -892,9 +902,8 @@ public class SARPlane extends AbstractPlane {
 
     @Override
     public Task removeTask(Task task) {
-        for (Plane p : getWorld().getPlanes()) {
-            p.getSearchForTasks().remove(task);
-            p.getTasks().remove(task);
+        for (AbstractPlane p : getWorld().getTaskHolders().getHolders(task)) {
+            p.dropTask(task);
         }
         // TODO: Remove next line?
         taskRemoved(task);
@@ -0,0 +1,461 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Regions and blocks in which the simulation space is split for searching.
+ * <p/>
+ * The space is divided in a grid of square regions, each one made of 3x3
+ * square blocks. Regions are numbered column by column, and the blocks of
+ * each region are numbered after it, also column by column, so the position
+ * of any region or block follows from its number by plain arithmetic.
+ * <p/>
+ * All of their state is kept here, in primitive arrays, and {@link Region}
+ * and {@link Block} objects are just lightweight views over it. Therefore,
+ * memory use is a few bytes per block and views can be created (and thrown
+ * away) whenever they are needed.
+ * <p/>
+ * Besides their position in space, blocks are laid out in the grid used by
+ * the crowd checks, where the x position of a block is given by the y
+ * position of its region and its column within it, and the y position by
+ * the x position of its region and its row within it.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class SearchGrid implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of blocks along each side of a region.
+     */
+    public static final int REGION_SIDE = 3;
+
+    private static final int REGION_BLOCKS = REGION_SIDE*REGION_SIDE;
+
+    private static final Block.blockState[] BLOCK_STATES = Block.blockState.values();
+
+    private static final Region.regionState[] REGION_STATES = Region.regionState.values();
+
+    private final int widthRegions;
+    private final int heightRegions;
+    private final int blockSize;
+
+    private final byte[] blockStates;
+    private final byte[] regionStates;
+    private final int[] tasksFound;
+
+    /**
+     * Number of blocks of each region in each state, indexed by region and
+     * then by the state's ordinal.
+     */
+    private final byte[] blockCounts;
+
+    /**
+     * Position of the survivor of each block in {@link #survivorTable} plus
+     * one, or 0 if the block has no survivor.
+     */
+    private final int[] survivors;
+
+    /**
+     * Survivors of the blocks, with the slots that have been freed stacked
+     * in {@link #freeSlots} to be reused.
+     */
+    private Task[] survivorTable = new Task[16];
+    private int survivorSlots = 0;
+    private int[] freeSlots = new int[16];
+    private int nFreeSlots = 0;
+
+    /**
+     * Indexes that must be notified of state changes, if any.
+     */
+    private RegionPool regionPool;
+    private AssignedBlockIndex assignedIndex;
+
+    /**
+     * Build a new grid where all regions and blocks are unassigned.
+     *
+     * @param widthRegions number of regions along the x axis.
+     * @param heightRegions number of regions along the y axis.
+     * @param blockSize side length of the blocks.
+     */
+    public SearchGrid(int widthRegions, int heightRegions, int blockSize) {
+        if (widthRegions <= 0 || heightRegions <= 0 || blockSize <= 0) {
+            throw new IllegalArgumentException("Invalid grid of " + widthRegions + "x"
+                    + heightRegions + " regions with blocks of size " + blockSize + ".");
+        }
+        this.widthRegions = widthRegions;
+        this.heightRegions = heightRegions;
+        this.blockSize = blockSize;
+
+        final int regions = widthRegions*heightRegions;
+        blockStates = new byte[regions*REGION_BLOCKS];
+        regionStates = new byte[regions];
+        tasksFound = new int[regions];
+        blockCounts = new byte[regions*BLOCK_STATES.length];
+        survivors = new int[regions*REGION_BLOCKS];
+
+        final byte unassignedBlock = (byte)Block.blockState.UNASSIGNED.ordinal();
+        final byte unassignedRegion = (byte)Region.regionState.UNASSIGNED.ordinal();
+        for (int r=0; r<regions; r++) {
+            regionStates[r] = unassignedRegion;
+            blockCounts[r*BLOCK_STATES.length + unassignedBlock] = REGION_BLOCKS;
+        }
+        Arrays.fill(blockStates, unassignedBlock);
+    }
+
+    public int getWidthRegions() { return widthRegions; }
+
+    public int getHeightRegions() { return heightRegions; }
+
+    public int getBlockSize() { return blockSize; }
+
+    public int getRegionCount() { return regionStates.length; }
+
+    public int getBlockCount() { return blockStates.length; }
+
+    /**
+     * Get the number of columns of the crowd checks' block grid, that is,
+     * the number of different block x positions.
+     *
+     * @return number of columns of the block grid.
+     */
+    public int getBlockColumns() { return heightRegions*REGION_SIDE; }
+
+    /**
+     * Get the number of rows of the crowd checks' block grid, that is, the
+     * number of different block y positions.
+     *
+     * @return number of rows of the block grid.
+     */
+    public int getBlockRows() { return widthRegions*REGION_SIDE; }
+
+    void setRegionPool(RegionPool pool) { this.regionPool = pool; }
+
+    void setAssignedIndex(AssignedBlockIndex index) { this.assignedIndex = index; }
+
+    /* Regions */
+
+    /**
+     * Get a view of the given region.
+     *
+     * @param id number of the region.
+     * @return view of the region.
+     */
+    public Region getRegion(int id) {
+        if (id < 0 || id >= regionStates.length) {
+            throw new IndexOutOfBoundsException("Region " + id + " out of bounds [0, "
+                    + regionStates.length + ").");
+        }
+        return new Region(this, id);
+    }
+
+    /**
+     * Get a list view of all the regions, sorted by their number.
+     *
+     * @return list of regions.
+     */
+    public List<Region> getRegions() {
+        return new RegionList();
+    }
+
+    int getRegionX(int id) { return id / heightRegions; }
+
+    int getRegionY(int id) { return id % heightRegions; }
+
+    double getRegionCenterX(int id) {
+        return getRegionX(id)*REGION_SIDE*(double)blockSize + 1.5*blockSize;
+    }
+
+    double getRegionCenterY(int id) {
+        return getRegionY(id)*REGION_SIDE*(double)blockSize + 1.5*blockSize;
+    }
+
+    Location getRegionCorner(int id) {
+        return new Location(getRegionX(id)*REGION_SIDE*(double)blockSize,
+                getRegionY(id)*REGION_SIDE*(double)blockSize);
+    }
+
+    Location getRegionCenter(int id) {
+        return new Location(getRegionCenterX(id), getRegionCenterY(id));
+    }
+
+    Region.regionState getRegionState(int id) {
+        return REGION_STATES[regionStates[id]];
+    }
+
+    void setRegionState(int id, Region.regionState state) {
+        final Region.regionState previous = REGION_STATES[regionStates[id]];
+        regionStates[id] = (byte)state.ordinal();
+        if (regionPool != null) {
+            regionPool.stateChanged(id, previous, state);
+        }
+    }
+
+    int getTasksFound(int id) { return tasksFound[id]; }
+
+    void taskFound(int id) {
+        tasksFound[id]++;
+        if (regionPool != null) {
+            regionPool.tasksFoundChanged(id);
+        }
+    }
+
+    int getBlockCount(int id, Block.blockState state) {
+        return blockCounts[id*BLOCK_STATES.length + state.ordinal()];
+    }
+
+    /* Blocks */
+
+    /**
+     * Get a view of the given block.
+     *
+     * @param index number of the block.
+     * @return view of the block.
+     */
+    public Block getBlock(int index) {
+        if (index < 0 || index >= blockStates.length) {
+            throw new IndexOutOfBoundsException("Block " + index + " out of bounds [0, "
+                    + blockStates.length + ").");
+        }
+        return new Block(this, index);
+    }
+
+    /**
+     * Get a view of the given block of a region.
+     *
+     * @param region number of the region.
+     * @param k number of the block within the region.
+     * @return view of the block.
+     */
+    public Block getBlock(int region, int k) {
+        return getBlock(region*REGION_BLOCKS + k);
+    }
+
+    /**
+     * Get a view of the block at the given position of the crowd checks'
+     * block grid.
+     *
+     * @param x x position in the block grid.
+     * @param y y position in the block grid.
+     * @return view of the block.
+     */
+    public Block getBlockAt(int x, int y) {
+        return getBlock(indexAt(x, y));
+    }
+
+    /**
+     * Get the views of all the blocks of a region, sorted by their number.
+     *
+     * @param region number of the region.
+     * @return views of the blocks of the region.
+     */
+    Block[] getBlocks(int region) {
+        final Block[] blocks = new Block[REGION_BLOCKS];
+        for (int k=0; k<REGION_BLOCKS; k++) {
+            blocks[k] = new Block(this, region*REGION_BLOCKS + k);
+        }
+        return blocks;
+    }
+
+    int indexAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= getBlockColumns() || y >= getBlockRows()) {
+            throw new IndexOutOfBoundsException("Block position (" + x + ", " + y
+                    + ") out of bounds.");
+        }
+        final int region = (y / REGION_SIDE)*heightRegions + x / REGION_SIDE;
+        return region*REGION_BLOCKS + (x % REGION_SIDE)*REGION_SIDE + y % REGION_SIDE;
+    }
+
+    int getBlockRegion(int index) { return index / REGION_BLOCKS; }
+
+    int getBlockX(int index) {
+        final int region = index / REGION_BLOCKS;
+        return getRegionY(region)*REGION_SIDE + (index % REGION_BLOCKS) / REGION_SIDE;
+    }
+
+    int getBlockY(int index) {
+        final int region = index / REGION_BLOCKS;
+        return getRegionX(region)*REGION_SIDE + index % REGION_SIDE;
+    }
+
+    double getBlockCenterX(int index) {
+        final int column = getRegionX(index / REGION_BLOCKS)*REGION_SIDE
+                + (index % REGION_BLOCKS) / REGION_SIDE;
+        return (column + 1)*(double)blockSize - blockSize/2.0;
+    }
+
+    double getBlockCenterY(int index) {
+        final int row = getRegionY(index / REGION_BLOCKS)*REGION_SIDE + index % REGION_SIDE;
+        return (row + 1)*(double)blockSize - blockSize/2.0;
+    }
+
+    Location getBlockCenter(int index) {
+        return new Location(getBlockCenterX(index), getBlockCenterY(index));
+    }
+
+    Block.blockState getBlockState(int index) {
+        return BLOCK_STATES[blockStates[index]];
+    }
+
+    void setBlockState(int index, Block.blockState state) {
+        final int previous = blockStates[index];
+        blockStates[index] = (byte)state.ordinal();
+        final int base = (index / REGION_BLOCKS)*BLOCK_STATES.length;
+        blockCounts[base + previous]--;
+        blockCounts[base + state.ordinal()]++;
+        if (assignedIndex != null) {
+            assignedIndex.stateChanged(index, BLOCK_STATES[previous], state);
+        }
+    }
+
+    Task getSurvivor(int index) {
+        final int slot = survivors[index];
+        return slot == 0 ? null : survivorTable[slot - 1];
+    }
+
+    void setSurvivor(int index, Task t) {
+        int slot = survivors[index];
+        if (t == null) {
+            if (slot != 0) {
+                survivorTable[slot - 1] = null;
+                if (nFreeSlots == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, nFreeSlots*2);
+                }
+                freeSlots[nFreeSlots++] = slot - 1;
+                survivors[index] = 0;
+            }
+            return;
+        }
+
+        if (slot == 0) {
+            if (nFreeSlots > 0) {
+                slot = freeSlots[--nFreeSlots] + 1;
+            } else {
+                if (survivorSlots == survivorTable.length) {
+                    survivorTable = Arrays.copyOf(survivorTable, survivorSlots*2);
+                }
+                slot = ++survivorSlots;
+            }
+            survivors[index] = slot;
+        }
+        survivorTable[slot - 1] = t;
+    }
+
+    boolean hasSurvivor(int index) {
+        return survivors[index] != 0;
+    }
+
+    /**
+     * Find the nearest block without a survivor that is closer than the
+     * given distance to the given location.
+     * <p/>
+     * The cell of the location is found by plain arithmetic, and then the
+     * rings of cells around it are checked moving outwards until no closer
+     * block can be found. Ties are broken in favor of the block with the
+     * lowest number.
+     *
+     * @param location location.
+     * @param distance maximum (exclusive) distance to the block's center.
+     * @return the nearest block without a survivor, or <em>null</em> if
+     *         there is none within the distance.
+     */
+    public Block nearestFreeBlock(Location location, double distance) {
+        final int columns = widthRegions*REGION_SIDE, rows = heightRegions*REGION_SIDE;
+        final int cx = cell(location.getX(), columns);
+        final int cy = cell(location.getY(), rows);
+        final int maxRing = Math.max(Math.max(cx, columns - 1 - cx), Math.max(cy, rows - 1 - cy));
+
+        int best = -1;
+        double bestDistance = distance;
+        for (int r = 0; r <= maxRing; r++) {
+            // Blocks in ring r are at least (r - 1/2) blocks away, so one
+            // more half block of margin absorbs any rounding.
+            if ((r - 1) * (double)blockSize > bestDistance) {
+                break;
+            }
+            for (int x = cx - r; x <= cx + r; x++) {
+                if (x < 0 || x >= columns) {
+                    continue;
+                }
+                final int step = (x == cx - r || x == cx + r) ? 1 : Math.max(1, 2*r);
+                for (int y = cy - r; y <= cy + r; y += step) {
+                    if (y < 0 || y >= rows) {
+                        continue;
+                    }
+                    final int region = (x / REGION_SIDE)*heightRegions + y / REGION_SIDE;
+                    final int b = region*REGION_BLOCKS + (x % REGION_SIDE)*REGION_SIDE + y % REGION_SIDE;
+                    if (survivors[b] != 0) {
+                        continue;
+                    }
+                    final double dx = getBlockCenterX(b) - location.getX();
+                    final double dy = getBlockCenterY(b) - location.getY();
+                    final double d = Math.sqrt(dx*dx + dy*dy);
+                    if (d < bestDistance || (d == bestDistance && b < best)) {
+                        best = b;
+                        bestDistance = d;
+                    }
+                }
+            }
+        }
+        return best < 0 ? null : new Block(this, best);
+    }
+
+    private int cell(double coordinate, int cells) {
+        return (int)Math.max(0, Math.min(cells - 1, Math.floor(coordinate/blockSize)));
+    }
+
+    private class RegionList extends AbstractList<Region> implements RandomAccess {
+        @Override
+        public Region get(int index) {
+            return getRegion(index);
+        }
+
+        @Override
+        public int size() {
+            return regionStates.length;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+
+import es.csic.iiia.planes.cli.Configuration;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Copy of the whole state of a {@link World} at some point of its simulation.
+ * <p/>
+ * A snapshot holds everything in the world: planes and their batteries,
+ * blocks and regions, tasks, operators and the messages that have not been
+ * delivered yet. It can be restored any number of times, and each restored
+ * world continues the simulation on its own. Hence, simulations that share
+ * a common prefix (for instance, a sweep over a parameter that is only used
+ * after some time) can compute that prefix just once, and then
+ * {@link #fork(Configuration) fork} it with different configurations.
+ * <p/>
+ * Only the parameters read during the simulation can take new values when
+ * forking. Those that determine which elements are built (such as the type of
+ * planes or their strategies) can not be changed.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class Snapshot {
+
+    /**
+     * Settings that are only read while the world is built, and thus can not
+     * be changed when forking it.
+     */
+    private static final String[] FIXED_SETTINGS = new String[]{
+        "problem", "seed", "planes", "operator-strategy", "omniscient-allocation",
+        "battery", "idle-strategy", "task-evaluation", "maxsum-planes-function",
+        "maxsum-workload-function", "maxsum-workload-k", "maxsum-workload-alpha",
+    };
+
+    /**
+     * Serialized state of the world.
+     */
+    private final byte[] state;
+
+    /**
+     * Configuration of the original world.
+     */
+    private final Configuration config;
+
+    /**
+     * Simulation time at which this snapshot was taken.
+     */
+    private final long time;
+
+    /**
+     * Take a snapshot of the given world.
+     *
+     * @param world world to copy.
+     * @throws IllegalStateException if the world can not be copied.
+     */
+    Snapshot(AbstractWorld world) {
+        config = world.getConfig();
+        time = world.getTime();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(buffer);
+            out.writeObject(world);
+            out.close();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to take a snapshot of the world", ex);
+        }
+        state = buffer.toByteArray();
+    }
+
+    /**
+     * Get the simulation time at which this snapshot was taken.
+     *
+     * @return time (in tenths of second) of this snapshot.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Get the configuration of the world from which this snapshot was taken.
+     *
+     * @return configuration of the original world.
+     */
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Restore a copy of the original world.
+     *
+     * @return new world, in the same state as the original one when this
+     *         snapshot was taken.
+     */
+    public World restore() {
+        return fork(config);
+    }
+
+    /**
+     * Restore a copy of the original world, which will continue its
+     * simulation with the given configuration.
+     *
+     * @param config configuration of the new world.
+     * @return new world, in the same state as the original one when this
+     *         snapshot was taken.
+     * @throws IllegalArgumentException if the configuration changes a setting
+     *         that is only read while building a world, such as its problem
+     *         or the class of its planes.
+     */
+    public World fork(Configuration config) {
+        for (String key : FIXED_SETTINGS) {
+            final String before = this.config.getValue(key);
+            final String after = config.getValue(key);
+            if (before == null ? after != null : !before.equals(after)) {
+                throw new IllegalArgumentException("Unable to change the setting \""
+                        + key + "\" when forking a world.");
+            }
+        }
+
+        AbstractWorld world;
+        try {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state));
+            world = (AbstractWorld)in.readObject();
+            in.close();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to restore the snapshot", ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Unable to restore the snapshot", ex);
+        }
+
+        world.reconfigure(config);
+        return world;
+    }
+
+}
@@ -38,6 +38,7 @@
 package es.csic.iiia.planes;
 
 import java.awt.Dimension;
+import java.io.Serializable;
 
 /**
  * Represents the physical space covered by the planes.
@@ -46,7 +47,9 @@ import java.awt.Dimension;
  */
 
 
-public class Space {
+public class Space implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private int width;
     private int height;
 
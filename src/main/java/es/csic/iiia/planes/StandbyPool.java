@@ -0,0 +1,309 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool of the standby planes that are available to rescue the survivors
+ * found by eagle planes.
+ * <p/>
+ * The pool keeps its planes in a uniform grid of buckets over the space, so
+ * the nearest one to a survivor is found by checking the rings of cells
+ * around it moving outwards, instead of scanning every standby plane. Planes
+ * may keep idling around while in the pool, so the world must report their
+ * movements through {@link #update(SARPlane)}.
+ * <p/>
+ * Iteration follows the order in which planes joined the pool, and ties
+ * between equally distant planes are broken in favor of the one that joined
+ * first, exactly as a linear scan of a list of standby planes would.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class StandbyPool extends AbstractCollection<SARPlane> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of cells along each axis.
+     */
+    private static final int MAX_CELLS = 64;
+
+    /**
+     * Relative slack when pruning rings of cells, to absorb rounding errors.
+     */
+    private static final double SLACK = 1e-9;
+
+    private final int columns;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+
+    /** Pooled planes, in the order they joined the pool */
+    private final Map<SARPlane, Entry> entries = new LinkedHashMap<SARPlane, Entry>();
+    /** Entries placed in each cell */
+    private final Entry[][] cells;
+    /** Number of entries in each cell */
+    private final int[] counts;
+    /** Sequence number of the next plane to join the pool */
+    private long nextSequence = 0;
+
+    /**
+     * Build a new empty pool of standby planes.
+     *
+     * @param space space where the planes fly.
+     * @param planes number of planes of the simulation, used to size the
+     *               grid so that each cell holds a few planes at most.
+     */
+    public StandbyPool(Space space, int planes) {
+        final int side = (int)Math.max(1, Math.min(MAX_CELLS, Math.ceil(Math.sqrt(planes))));
+        columns = side;
+        rows = side;
+        cellWidth = Math.max(1, space.getWidth()) / (double)columns;
+        cellHeight = Math.max(1, space.getHeight()) / (double)rows;
+        cells = new Entry[columns*rows][];
+        counts = new int[columns*rows];
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return entries.containsKey(o);
+    }
+
+    /**
+     * Add a plane to the pool, unless it is there already.
+     *
+     * @param plane plane to add.
+     * @return True if the plane was added, or false otherwise.
+     */
+    @Override
+    public boolean add(SARPlane plane) {
+        if (entries.containsKey(plane)) {
+            return false;
+        }
+        final Entry e = new Entry(plane, nextSequence++);
+        entries.put(plane, e);
+        insert(e, cell(plane.getLocation()));
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        final Entry e = entries.remove(o);
+        if (e == null) {
+            return false;
+        }
+        remove(e);
+        return true;
+    }
+
+    @Override
+    public Iterator<SARPlane> iterator() {
+        final Iterator<Entry> it = entries.values().iterator();
+        return new Iterator<SARPlane>() {
+            private Entry current;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public SARPlane next() {
+                current = it.next();
+                return current.plane;
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                StandbyPool.this.remove(current);
+            }
+        };
+    }
+
+    /**
+     * Update the position of the given plane in the pool, if it is there.
+     *
+     * @param plane plane that has moved.
+     */
+    public void update(SARPlane plane) {
+        final Entry e = entries.get(plane);
+        if (e == null) {
+            return;
+        }
+        final int c = cell(plane.getLocation());
+        if (c != e.cell) {
+            remove(e);
+            insert(e, c);
+        }
+    }
+
+    /**
+     * Find the pooled plane nearest to the given location.
+     *
+     * @param location location.
+     * @return the nearest plane, or <em>null</em> if the pool is empty.
+     */
+    public SARPlane nearest(Location location) {
+        final Entry e = nearestEntry(location);
+        return e == null ? null : e.plane;
+    }
+
+    /**
+     * Remove and return the pooled plane nearest to the given location.
+     *
+     * @param location location.
+     * @return the nearest plane, or <em>null</em> if the pool is empty.
+     */
+    public SARPlane pollNearest(Location location) {
+        final Entry e = nearestEntry(location);
+        if (e == null) {
+            return null;
+        }
+        entries.remove(e.plane);
+        remove(e);
+        return e.plane;
+    }
+
+    private Entry nearestEntry(Location location) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        final int cx = column(location.getX());
+        final int cy = row(location.getY());
+        final int maxRing = Math.max(Math.max(cx, columns - 1 - cx), Math.max(cy, rows - 1 - cy));
+        final double side = Math.min(cellWidth, cellHeight);
+
+        Entry best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (int r = 0; r <= maxRing; r++) {
+            // Planes in ring r are at least (r - 1) cells away
+            if (best != null && (r - 1) * side > bestDistance * (1 + SLACK)) {
+                break;
+            }
+            for (int x = cx - r; x <= cx + r; x++) {
+                if (x < 0 || x >= columns) {
+                    continue;
+                }
+                final int step = (x == cx - r || x == cx + r) ? 1 : Math.max(1, 2*r);
+                for (int y = cy - r; y <= cy + r; y += step) {
+                    if (y < 0 || y >= rows) {
+                        continue;
+                    }
+                    final int cell = x*rows + y;
+                    final Entry[] members = cells[cell];
+                    for (int k=0, len=counts[cell]; k<len; k++) {
+                        final Entry e = members[k];
+                        final double d = e.plane.getLocation().getDistance(location);
+                        if (d < bestDistance || (d == bestDistance && best != null && e.sequence < best.sequence)) {
+                            best = e;
+                            bestDistance = d;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(double x) {
+        final int c = (int)Math.floor(x / cellWidth);
+        return c < 0 ? 0 : (c >= columns ? columns-1 : c);
+    }
+
+    private int row(double y) {
+        final int r = (int)Math.floor(y / cellHeight);
+        return r < 0 ? 0 : (r >= rows ? rows-1 : r);
+    }
+
+    private int cell(Location l) {
+        return column(l.getX())*rows + row(l.getY());
+    }
+
+    private void insert(Entry e, int cell) {
+        Entry[] members = cells[cell];
+        if (members == null) {
+            members = new Entry[4];
+            cells[cell] = members;
+        } else if (counts[cell] == members.length) {
+            members = Arrays.copyOf(members, members.length*2);
+            cells[cell] = members;
+        }
+        e.slot = counts[cell];
+        e.cell = cell;
+        members[counts[cell]++] = e;
+    }
+
+    private void remove(Entry e) {
+        final Entry[] members = cells[e.cell];
+        final Entry last = members[--counts[e.cell]];
+        members[e.slot] = last;
+        last.slot = e.slot;
+        members[counts[e.cell]] = null;
+    }
+
+    /**
+     * Position of a pooled plane in the grid.
+     */
+    private static final class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final SARPlane plane;
+        private final long sequence;
+        private int cell;
+        private int slot;
+
+        Entry(SARPlane plane, long sequence) {
+            this.plane = plane;
+            this.sequence = sequence;
+        }
+    }
+
+}
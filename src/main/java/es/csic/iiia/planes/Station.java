@@ -52,8 +52,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class Station extends AbstractPositionedElement implements Drawable {
 
+    private static final long serialVersionUID = 1L;
+
     final private static AtomicInteger idGenerator = new AtomicInteger();
-    final int id = idGenerator.incrementAndGet();
 
     /**
      * Default constructor.
@@ -64,6 +65,13 @@ public class Station extends AbstractPositionedElement implements Drawable {
      */
     public Station(Location position) {
         super(position);
+        setId(idGenerator.incrementAndGet());
+    }
+
+    @Override
+    public void setWorld(World world) {
+        super.setWorld(world);
+        setId(world.nextId(Station.class));
     }
 
     @Override
@@ -36,15 +36,19 @@
  */
 package es.csic.iiia.planes;
 
+import es.csic.iiia.planes.util.ResultsFile;
 import es.csic.iiia.planes.util.TimeTracker;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
 import java.io.*;
 
 /**
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-class StatsCollector {
+class StatsCollector implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private AbstractWorld world;
     private DescriptiveStatistics taskStats = new DescriptiveStatistics();
@@ -110,19 +114,14 @@ class StatsCollector {
                 .append("\n");
 
 
-        System.out.println(buf);
-        try{
-            FileWriter fw = new FileWriter("results.txt", true);
-            BufferedWriter bw = new BufferedWriter(fw);
-            PrintWriter out = new PrintWriter(bw);
-            String[] results = buf.toString().split("\n");
-            for (String s:results) {
-                out.println(s);
-            }
-            out.close();
-        }
-        catch (IOException e) {
+        final PrintStream output = world.getOutput();
+        if (output != null) {
+            output.println(buf);
+            return;
         }
+
+        System.out.println(buf);
+        ResultsFile.append(buf.toString());
     }
 
 }
\ No newline at end of file
@@ -53,15 +53,13 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class Task extends AbstractPositionedElement implements Drawable, Comparable {
 
-    /**
-     * Generator of unique identifiers.
-     */
-    private final static AtomicInteger idGenerator = new AtomicInteger();
+    private static final long serialVersionUID = 1L;
 
     /**
-     * Identifier of this task.
+     * Generator of provisional identifiers, for tasks that do not belong to
+     * any world.
      */
-    private final int id = idGenerator.incrementAndGet();
+    private final static AtomicInteger idGenerator = new AtomicInteger();
 
     /**
      * Time at which this task has been submitted.
@@ -91,13 +89,20 @@ public class Task extends AbstractPositionedElement implements Drawable, Compara
      */
     public Task(Location location) {
         super(location);
+        setId(idGenerator.incrementAndGet());
+    }
+
+    @Override
+    public void setWorld(World world) {
+        super.setWorld(world);
+        setId(world.nextId(Task.class));
     }
 
     @Override
     public void initialize() {
         submissionTime = getWorld().getTime();
         //TODO: Make this dependent on settings
-        expireTime = (long)(Math.random()*(2592000-360000))+360000;
+        expireTime = (long)(getRandom().nextDouble()*(2592000-360000))+360000;
         alive = true;
     }
 
@@ -109,24 +114,12 @@ public class Task extends AbstractPositionedElement implements Drawable, Compara
         return submissionTime;
     }
 
-    /**
-     * Get the identifier of this task.
-     *
-     * Identifiers are sequential (in order of submission) and guaranteed to be
-     * unique.
-     *
-     * @return the identifier of this Task.
-     */
-    public int getId() {
-        return id;
-    }
-
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
 //        buf.append("Task[").append(id).append("](").append(getLocation().getX())
 //                .append(",").append(getLocation().getY()).append(")");
-        buf.append("Task[").append(id).append("]");
+        buf.append("Task[").append(getId()).append("]");
         return buf.toString();
     }
 
@@ -165,7 +158,16 @@ public class Task extends AbstractPositionedElement implements Drawable, Compara
         }
 
         final Task other = (Task)t;
-        return id - other.id;
+        return getId() - other.getId();
+    }
+
+    /**
+     * Tasks are hashed by identifier, so that hash-based orderings do not
+     * depend on the process where the simulation runs.
+     */
+    @Override
+    public int hashCode() {
+        return getId();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright (c) 2012, IIIA-CSIC, Artificial Intelligence Research Institute
+ * All rights reserved.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the agents that hold each task, so that a task can be dropped
+ * from its holders without scanning every agent of the world.
+ * <p/>
+ * An agent may hold the same task more than once (for instance, both to
+ * rescue it and to search for it), so the index counts how many times each
+ * agent holds each task. Holders must report every time they take or drop
+ * a task.
+ *
+ * @param <H> type of the holders.
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class TaskHolderIndex<H> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Holders of each task, in the order they took it, with their counts */
+    private final Map<Task, Map<H, Integer>> holders =
+            new HashMap<Task, Map<H, Integer>>();
+
+    /**
+     * Record that the given agent holds the given task once more.
+     *
+     * @param task task being held.
+     * @param holder agent holding it.
+     */
+    public void add(Task task, H holder) {
+        Map<H, Integer> counts = holders.get(task);
+        if (counts == null) {
+            counts = new LinkedHashMap<H, Integer>(4);
+            holders.put(task, counts);
+        }
+        final Integer count = counts.get(holder);
+        counts.put(holder, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Record that the given agent holds the given task once less.
+     *
+     * @param task task being dropped.
+     * @param holder agent dropping it.
+     */
+    public void remove(Task task, H holder) {
+        final Map<H, Integer> counts = holders.get(task);
+        if (counts == null) {
+            return;
+        }
+        final Integer count = counts.get(holder);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            counts.put(holder, count - 1);
+        } else {
+            counts.remove(holder);
+            if (counts.isEmpty()) {
+                holders.remove(task);
+            }
+        }
+    }
+
+    /**
+     * Check whether any agent holds the given task.
+     *
+     * @param task task to check.
+     * @return True if some agent holds the task, or false otherwise.
+     */
+    public boolean isHeld(Task task) {
+        return holders.containsKey(task);
+    }
+
+    /**
+     * Get the agents holding the given task.
+     * <p/>
+     * The returned list is a copy, so holders may drop the task while
+     * iterating over it.
+     *
+     * @param task task to look for.
+     * @return agents holding the task, in the order they took it.
+     */
+    public List<H> getHolders(Task task) {
+        final Map<H, Integer> counts = holders.get(task);
+        if (counts == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<H>(counts.keySet());
+    }
+
+    /**
+     * Get the number of tasks held by some agent.
+     *
+     * @return number of held tasks.
+     */
+    public int size() {
+        return holders.size();
+    }
+
+}
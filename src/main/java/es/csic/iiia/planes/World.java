@@ -40,9 +40,13 @@ package es.csic.iiia.planes;
 import es.csic.iiia.planes.definition.DProblem;
 import es.csic.iiia.planes.cli.Configuration;
 import es.csic.iiia.planes.messaging.Message;
+import es.csic.iiia.planes.messaging.RangedMessage;
+import es.csic.iiia.planes.util.EventRing;
 
-import java.util.ArrayList;
+import java.io.PrintStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Represents the world where a simulation runs.
@@ -90,18 +94,18 @@ public interface World extends Runnable {
     Space getSpace();
 
     /**
-     * Get the {@link Block} of this simulation.
+     * Get the grid of {@link Region}s and {@link Block}s of this simulation.
      *
-     * @return the {@link Block} of this simulation.
+     * @return the search grid of this simulation.
      */
-    Block[][] getBlocks();
+    SearchGrid getSearchGrid();
 
     /**
-     * Get the {@link Region} of this simulation.
+     * Get the index of the unassigned {@link Region}s of this simulation.
      *
-     * @return the {@link Region} of this simulation.
+     * @return the index of unassigned regions.
      */
-    ArrayList<Region> getRegions();
+    RegionPool getUnassignedRegions();
 
     /**
      * Add a chargin station.
@@ -126,6 +130,17 @@ public interface World extends Runnable {
      */
     Operator getNearestOperator(Location location);
 
+    /**
+     * Get the block without a survivor that is closest to the given location,
+     * provided that it is closer than the given distance.
+     *
+     * @param location where an element is querying from.
+     * @param distance maximum (exclusive) distance to the block's center.
+     * @return the closest free block, or <em>null</em> if there is none
+     *         within the distance.
+     */
+    Block getNearestFreeBlock(Location location, double distance);
+
     /**
      * Add a new task to the world.
      *
@@ -155,20 +170,55 @@ public interface World extends Runnable {
     void removeExpired(Task task);
 
     /**
-     * Get the list of tasks in the world.
+     * Get the index of the planes holding each task, either to rescue it or
+     * to search for it.
+     *
+     * @see TaskHolderIndex
+     * @return index of task holders.
+     */
+    TaskHolderIndex<AbstractPlane> getTaskHolders();
+
+    /**
+     * Get the tasks in the world, in the order they were added.
      *
      * This method should not be used by any simulation agent, unless it is
      * considered as being omniscient.
      */
-    List<Task> getTasks();
+    Collection<Task> getTasks();
 
-    //TODO: Explain this
+    /**
+     * Get the blocks that no plane has been assigned to explore yet.
+     *
+     * The returned list supports (fast) random positional removals, removals
+     * by identity and appending blocks.
+     *
+     * @see BlockPool
+     * @return list of unassigned blocks.
+     */
     List<Block> getUnassignedBlocks();
 
-    Block[][] getBlockGrid();
+    /**
+     * Get the index of the assigned {@link Block}s of this simulation.
+     *
+     * @return the index of assigned blocks.
+     */
+    AssignedBlockIndex getAssignedBlocks();
 
-    List<SARPlane> getStandbyAvailable();
+    /**
+     * Get the standby planes that are available to rescue survivors.
+     *
+     * @see StandbyPool
+     * @return pool of available standby planes.
+     */
+    StandbyPool getStandbyAvailable();
 
+    /**
+     * Send the nearest available standby plane to rescue the survivor of
+     * the given block.
+     *
+     * @param b block where the survivor has been found.
+     * @return True if some standby plane has been sent, or false otherwise.
+     */
     boolean sendStandby(Block b);
 
     Configuration getConfig();
@@ -187,16 +237,63 @@ public interface World extends Runnable {
      */
     void init(DProblem d);
 
+    /**
+     * Run the simulation until the given time, or until it ends if that
+     * happens earlier.
+     *
+     * The simulation can then be resumed by calling this method again (with a
+     * later time) or {@link #run()}, which runs it until the end. Results are
+     * only written once the simulation has ended.
+     *
+     * @param time time (in tenths of second) at which to stop the simulation.
+     */
+    void runUntil(long time);
+
+    /**
+     * Check whether the simulation has already ended.
+     *
+     * @return true if the simulation has ended, or false otherwise.
+     */
+    boolean isFinished();
+
+    /**
+     * Take a snapshot of the current state of this world.
+     *
+     * The snapshot holds a copy of the whole simulation state, so it can later
+     * be restored (or forked with a different configuration) any number of
+     * times, regardless of what happens to this world afterwards. Snapshots
+     * must be taken while the simulation is stopped, that is, before it runs
+     * or between calls to {@link #runUntil(long)}.
+     *
+     * @return snapshot of this world.
+     * @throws IllegalStateException if this world can not be copied.
+     */
+    Snapshot snapshot();
+
     /**
      * Sends a message to all {@link MessagingAgent}s in range of the sender.
      *
+     * The range is the sender's communication range, unless the message is a
+     * {@link RangedMessage} that specifies its own.
+     *
      * @see Message#getSender()
      * @see MessagingAgent#getCommunicationRange()
+     * @see RangedMessage#getRange()
      *
      * @param message to be sent.
      */
     public void sendMessage(Message message);
 
+    /**
+     * Notifies the world that the given plane has changed its position.
+     *
+     * Planes must call this method whenever they move, so that the world can
+     * keep track of which planes are within range of each other.
+     *
+     * @param p plane that has moved.
+     */
+    public void planeMoved(Plane p);
+
     /**
      * Set the duration of this scenario (in tenths of second).
      *
@@ -206,4 +303,58 @@ public interface World extends Runnable {
 
     public List<Operator> getOperators();
 
+    /**
+     * Get a new identifier for an element of the given kind.
+     *
+     * Identifiers are sequential and unique among the elements of the same
+     * kind in this world, so they do not depend on any other simulations
+     * running in the same process.
+     *
+     * @param kind kind of element (plane, task, operator, ...).
+     * @return a new identifier.
+     */
+    public int nextId(Class<? extends Element> kind);
+
+    /**
+     * Get a new random number generator for the given element.
+     *
+     * Each element gets its own stream, derived from the simulation's seed
+     * and the element's kind and identifier. Hence, the numbers drawn by an
+     * element do not depend on what other elements draw, nor on the order in
+     * which they are run.
+     *
+     * @see Element#getRandom()
+     * @param element element that will use the generator.
+     * @return new random number generator for the element.
+     */
+    public Random getRandom(Element element);
+
+    /**
+     * Get the buffer where the main events of the simulation are traced.
+     *
+     * Callers must check that tracing is enabled (the returned buffer is not
+     * <em>null</em>) before computing any of the event's values.
+     *
+     * @return the trace buffer, or <em>null</em> if tracing is disabled.
+     */
+    public EventRing getTrace();
+
+    /**
+     * Get the movement state of this world's planes.
+     *
+     * @return the planes' movement table.
+     */
+    public Kinematics getKinematics();
+
+    /**
+     * Set the stream where this world writes the results of its simulation.
+     *
+     * By default, results are written to the standard output and appended to
+     * the <em>results.txt</em> file. When a stream is set, results are only
+     * written to it.
+     *
+     * @param output stream where to write the results.
+     */
+    public void setOutput(PrintStream output);
+
 }
\ No newline at end of file
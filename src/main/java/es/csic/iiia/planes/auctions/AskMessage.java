@@ -45,6 +45,8 @@ import es.csic.iiia.planes.Task;
  */
 public class AskMessage extends AuctionMessage {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Builds a message to auction the specified task.
      *
@@ -54,4 +56,28 @@ public class AskMessage extends AuctionMessage {
         super(task);
     }
 
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle the messages auctioning tasks.
+     */
+    public interface Handler {
+
+        /**
+         * React to a message auctioning a task.
+         *
+         * @param message received.
+         */
+        public void on(AskMessage message);
+
+    }
+
 }
@@ -57,7 +57,11 @@ import java.util.logging.Logger;
  * <strong>TODO:</strong> Study how could we improve the situation for recharging planes.
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public class AuctionBehavior extends AbstractBehavior {
+public class AuctionBehavior extends AbstractBehavior
+    implements BidMessage.Handler, WinnerMessage.Handler, AskMessage.Handler
+{
+
+    private static final long serialVersionUID = 1L;
 
     private static final Logger LOG = Logger.getLogger(AuctionBehavior.class.getName());
 
@@ -84,9 +88,15 @@ public class AuctionBehavior extends AbstractBehavior {
     @Override
     public void initialize() {
         super.initialize();
-        final Configuration config = getAgent().getWorld().getFactory().getConfiguration();
-
         neighborTracker = getAgent().getBehavior(NeighborTracking.class);
+        readConfiguration();
+    }
+
+    /**
+     * Reads the bidding rule from the world's configuration.
+     */
+    public void readConfiguration() {
+        final Configuration config = getAgent().getWorld().getFactory().getConfiguration();
         biddingRule = config.getAucBiddingRuleFactory().build(config);
     }
 
@@ -108,6 +118,7 @@ public class AuctionBehavior extends AbstractBehavior {
      * @see #afterMessages()
      * @param bid being received.
      */
+    @Override
     public void on(BidMessage bid) {
         final Task task = bid.getTask();
 
@@ -133,6 +144,7 @@ public class AuctionBehavior extends AbstractBehavior {
         tbids.add(bid);
     }
 
+    @Override
     public void on(WinnerMessage win) {
         getAgent().addTask(win.getTask());
 
@@ -141,6 +153,7 @@ public class AuctionBehavior extends AbstractBehavior {
         }
     }
 
+    @Override
     public void on(AskMessage ask) {
         final AuctionPlane agent = getAgent();
         final BidMessage bid = biddingRule.getBid(agent, ask.getTask());
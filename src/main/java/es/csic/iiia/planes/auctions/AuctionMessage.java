@@ -51,6 +51,8 @@ import es.csic.iiia.planes.messaging.Message;
  */
 public abstract class AuctionMessage extends AbstractMessage {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Task that this message refers to.
      */
@@ -54,7 +54,9 @@ import java.util.logging.Level;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public class AuctionPlane extends AbstractPlane {
+public class AuctionPlane extends AbstractPlane implements Reconfigurable {
+
+    private static final long serialVersionUID = 1L;
 
     private ArrayList<Task> localTasks = new ArrayList<Task>();
 
@@ -174,7 +176,7 @@ public class AuctionPlane extends AbstractPlane {
     }
 
     private void setNextBlockBasic() {
-        Random rnd = new Random();
+        Random rnd = getRandom();
         if (getWorld().getUnassignedBlocks().isEmpty()){
             idleAction();
             return;
@@ -190,7 +192,10 @@ public class AuctionPlane extends AbstractPlane {
      */
     private void triggerTaskFound(Block b) {
         Task t = b.getSurvivor();
-        getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        if (getLog().isLoggable(Level.FINE)) {
+            getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        }
+        trace(EVENT_FINDS, t);
         getCompletedLocations().add(t.getLocation());
         //TODO: Change to set as discovered and put the location in the operator's list of survivors in need of rescue
         tasksFound.add(t);
@@ -277,4 +282,9 @@ public class AuctionPlane extends AbstractPlane {
         setNextBlockBasic();
     }
 
+    @Override
+    public void reconfigure() {
+        getBehavior(AuctionBehavior.class).readConfiguration();
+    }
+
 }
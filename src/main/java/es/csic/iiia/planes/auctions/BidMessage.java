@@ -45,6 +45,8 @@ import es.csic.iiia.planes.Task;
  */
 public class BidMessage extends AuctionMessage {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Price of this bid.
      */
@@ -70,4 +72,28 @@ public class BidMessage extends AuctionMessage {
         return this.price;
     }
 
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle bids.
+     */
+    public interface Handler {
+
+        /**
+         * React to a bid.
+         *
+         * @param message received.
+         */
+        public void on(BidMessage message);
+
+    }
+
 }
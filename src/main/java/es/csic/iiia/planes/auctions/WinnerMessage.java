@@ -46,6 +46,8 @@ import es.csic.iiia.planes.messaging.Message;
  */
 public class WinnerMessage extends AuctionMessage {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Builds a new message to inform the intended recipient that it has won
      * a task.
@@ -57,4 +59,29 @@ public class WinnerMessage extends AuctionMessage {
         super(task);
     }
 
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle the messages announcing the
+     * winners of tasks.
+     */
+    public interface Handler {
+
+        /**
+         * React to a message announcing that a task has been won.
+         *
+         * @param message received.
+         */
+        public void on(WinnerMessage message);
+
+    }
+
 }
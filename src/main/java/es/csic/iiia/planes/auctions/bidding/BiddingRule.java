@@ -40,12 +40,14 @@ import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.auctions.AuctionPlane;
 import es.csic.iiia.planes.auctions.BidMessage;
 
+import java.io.Serializable;
+
 /**
  * Implementation of a bidding rule.
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface BiddingRule {
+public interface BiddingRule extends Serializable {
 
     /**
      * Returns a bid given the plane and task.
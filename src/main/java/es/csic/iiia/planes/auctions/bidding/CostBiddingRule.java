@@ -47,6 +47,8 @@ import es.csic.iiia.planes.auctions.BidMessage;
  */
 public class CostBiddingRule implements BiddingRule {
 
+    private static final long serialVersionUID = 1L;
+
     public BidMessage getBid(AuctionPlane plane, Task task) {
         return new BidMessage(task, plane.getCost(task));
     }
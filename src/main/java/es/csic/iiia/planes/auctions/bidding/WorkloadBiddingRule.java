@@ -49,6 +49,8 @@ import java.util.List;
  */
 public class WorkloadBiddingRule implements BiddingRule {
 
+    private static final long serialVersionUID = 1L;
+
     private final double k;
     private final double alpha;
 
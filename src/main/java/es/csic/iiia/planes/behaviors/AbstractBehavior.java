@@ -46,6 +46,8 @@ import es.csic.iiia.planes.cli.Configuration;
  */
 public abstract class AbstractBehavior<T extends MessagingAgent> implements Behavior<T> {
 
+    private static final long serialVersionUID = 1L;
+
     private T agent;
 
     /**
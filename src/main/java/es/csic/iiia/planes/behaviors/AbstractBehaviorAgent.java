@@ -40,10 +40,7 @@ import es.csic.iiia.planes.AbstractMessagingAgent;
 import es.csic.iiia.planes.Location;
 import es.csic.iiia.planes.messaging.Message;
 import es.csic.iiia.planes.util.DependencyResolver;
-import org.apache.commons.collections.map.MultiKeyMap;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -59,6 +56,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(AbstractBehaviorAgent.class.getName());
 
     /**
@@ -68,15 +67,33 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
 
     /**
      * Messages received in the previous iteration, available at the current
-     * time.
+     * time. There is one mailbox per behavior (in order), holding only the
+     * messages that it handles.
      */
-    private List<Message> currentMessages;
+    private List<List<Message>> currentMailboxes;
 
     /**
      * Messages received in this iteration, that will not be available until
-     * the next one.
+     * the next one. There is one mailbox per behavior (in order), holding
+     * only the messages that it handles.
+     */
+    private List<List<Message>> futureMailboxes;
+
+    /**
+     * Messages received before the behaviors have been ordered, that are
+     * routed to their mailboxes once the agent is initialized.
+     */
+    private List<Message> unrouted;
+
+    /**
+     * Number of messages received in the previous iteration.
+     */
+    private int currentCount;
+
+    /**
+     * Number of messages received in this iteration.
      */
-    private List<Message> futureMessages;
+    private int futureCount;
 
     /**
      * The list of behaviors of this agent.
@@ -90,8 +107,9 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
 
     public AbstractBehaviorAgent(Location location) {
         super(location);
-        currentMessages = new ArrayList<Message>();
-        futureMessages = new ArrayList<Message>();
+        currentMailboxes = new ArrayList<List<Message>>();
+        futureMailboxes = new ArrayList<List<Message>>();
+        unrouted = new ArrayList<Message>();
         behaviors = new ArrayList<Behavior>();
     }
 
@@ -116,6 +134,16 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
 
         behaviors = newBehaviors;
         initialized = true;
+
+        // Build the mailboxes and route any message received until now
+        for (int i=0; i<behaviors.size(); i++) {
+            currentMailboxes.add(new ArrayList<Message>());
+            futureMailboxes.add(new ArrayList<Message>());
+        }
+        for (Message m : unrouted) {
+            route(m);
+        }
+        unrouted.clear();
     }
 
     /**
@@ -169,7 +197,24 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
 
     @Override
     public void receive(Message message) {
-        futureMessages.add(message);
+        futureCount++;
+        if (initialized) {
+            route(message);
+        } else {
+            unrouted.add(message);
+        }
+    }
+
+    /**
+     * Put a received message in the mailbox of each behavior that handles
+     * it. Messages that no behavior handles are dropped right away.
+     */
+    private void route(Message message) {
+        for (int j=0, len=behaviors.size(); j<len; j++) {
+            if (message.isHandledBy(behaviors.get(j))) {
+                futureMailboxes.get(j).add(message);
+            }
+        }
     }
 
     /**
@@ -183,10 +228,14 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
      */
     @Override
     public void preStep() {
-        List<Message> tmp = currentMessages;
-        tmp.clear();
-        currentMessages = futureMessages;
-        futureMessages = tmp;
+        List<List<Message>> tmp = currentMailboxes;
+        for (List<Message> mailbox : tmp) {
+            mailbox.clear();
+        }
+        currentMailboxes = futureMailboxes;
+        futureMailboxes = tmp;
+        currentCount = futureCount;
+        futureCount = 0;
 
         for (Behavior b : behaviors) {
             b.preStep();
@@ -232,76 +281,21 @@ public abstract class AbstractBehaviorAgent extends AbstractMessagingAgent {
     }
 
     private void dispatchMessages() {
-        LOG.log(Level.FINER, "{0} dispatching {1} messages.",
-                new Object[]{this, currentMessages.size()});
-
-        for (Behavior b : behaviors) {
-            for (Message m : currentMessages) {
-                handle(b, m);
-            }
+        if (LOG.isLoggable(Level.FINER)) {
+            LOG.log(Level.FINER, "{0} dispatching {1} messages.",
+                    new Object[]{this, currentCount});
         }
-    }
-
-    private MultiKeyMap cache = new MultiKeyMap();
 
-    private void handle(Behavior b, Message m) {
-        final Class<? extends Behavior> bClass = b.getClass();
-        final Class<? extends Message> mClass = m.getClass();
-
-        // Memoize the method
-        Method method;
-        if (cache.containsKey(bClass, mClass)) {
-            method = (Method)cache.get(bClass, mClass);
-        } else {
-            method = getMethod(bClass, mClass);
-            if (method != null) {
-                if (LOG.isLoggable(Level.FINEST)) {
-                    LOG.log(Level.FINEST, "Dispatching {0} to {1}",
-                            new Object[]{mClass.getSimpleName(), method.toGenericString()});
-                }
+        for (int j=0, len=behaviors.size(); j<len; j++) {
+            final List<Message> mailbox = currentMailboxes.get(j);
+            if (mailbox.isEmpty()) {
+                continue;
             }
-            cache.put(bClass, mClass, method);
-        }
-
-        if (method == null) {
-            return;
-        }
-
-        // Invoke it
-        try {
-            method.invoke(b, m);
-        } catch (IllegalAccessException ex) {
-            LOG.log(Level.SEVERE, null, ex);
-        } catch (IllegalArgumentException ex) {
-            LOG.log(Level.SEVERE, "Error invoking " + method.toGenericString()
-                    + " on " + b + " with argument " + m, ex);
-        } catch (InvocationTargetException ex) {
-            Throwable throwable = ex.getTargetException();
-            if (throwable instanceof Error) {
-                throw (Error) throwable;
-            } else if(throwable instanceof RuntimeException) {
-                throw (RuntimeException) throwable;
-            }
-            LOG.log(Level.SEVERE, null, throwable);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private static Method getMethod(Class<? extends Behavior> bClass,
-            Class<? extends Message> mClass)
-    {
-        Method m = null;
-        try {
-            m = bClass.getMethod("on", mClass);
-        } catch (NoSuchMethodException ex) {
-            Class c = mClass.getSuperclass();
-            if (Message.class.isAssignableFrom(c)) {
-                m = getMethod(bClass, (Class<? extends Message>)c);
+            final Object b = behaviors.get(j);
+            for (int i=0, n=mailbox.size(); i<n; i++) {
+                mailbox.get(i).deliverTo(b);
             }
-        } catch (SecurityException ex) {
-            LOG.log(Level.SEVERE, null, ex);
         }
-        return m;
     }
 
 }
\ No newline at end of file
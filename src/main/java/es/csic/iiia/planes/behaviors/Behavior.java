@@ -39,22 +39,23 @@ package es.csic.iiia.planes.behaviors;
 import es.csic.iiia.planes.messaging.Message;
 import es.csic.iiia.planes.MessagingAgent;
 
+import java.io.Serializable;
+
 /**
  * Defines some behavior for {@link MessagingAgent}s, by implementing arbitrary
  * reactions to specific {@link Message}s.
  * <p/>
- * Unfortunately, java is very stupid when trying to implement a messaging
- * system. Therefore, we use reflection here and there is no static checking
- * of any type.
- * <p/>
  * In order to define the reaction to a specific type of event, a class
- * implementing this interface must implement an method<br/>
+ * implementing this interface must implement the handler interface declared
+ * by that type of message, and hence its method<br/>
  * <code>on(MessageType message)</code><br/>
  * for each type of message that it reacts to.
  *
+ * @see Message#isHandledBy(Object)
+ *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface Behavior<T extends MessagingAgent> {
+public interface Behavior<T extends MessagingAgent> extends Serializable {
 
     /**
      * Get the agent that exhibits this behavior.
@@ -36,12 +36,16 @@
  */
 package es.csic.iiia.planes.behaviors.neighbors;
 
+import es.csic.iiia.planes.Kinematics;
 import es.csic.iiia.planes.Location;
 import es.csic.iiia.planes.MessagingAgent;
 import es.csic.iiia.planes.Plane;
 import es.csic.iiia.planes.behaviors.AbstractBehavior;
 import es.csic.iiia.planes.messaging.AbstractMessage;
+import es.csic.iiia.planes.messaging.RangedMessage;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,16 +55,67 @@ import java.util.logging.Logger;
  * This behavior tracks neighbors when they get in and out of range.
  * Additionally, it allows depending behaviors to require that other agents
  * must be guaranteed to stay neighbors for a fixed number of iterations.
+ * <p/>
+ * Planes do not beacon their location on every step. Instead, beacons carry
+ * the straight-line move that the plane is flying (see
+ * {@link Kinematics.Track}), and receivers extrapolate it step by step,
+ * reproducing the plane's position exactly. Hence, a plane only sends a new
+ * beacon when its position departs from the one announced (because it
+ * changes its heading or destination, stops or starts moving), and at least
+ * once every {@link #getBeaconPeriod()} steps.
+ * <p/>
+ * The neighbors obtained are exactly the same as if every plane beaconed its
+ * location on every step. For that, beacons reach a guard band beyond the
+ * sender's communication range, wide enough that any plane that may get in
+ * range before the next mandatory beacon already holds the sender's track.
+ * Receivers forget a track as soon as it is too old or too far away to be
+ * sure that they would have heard any newer beacon.
  *
  * @see #isNeighbor(es.csic.iiia.planes.MessagingAgent, int)
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class NeighborTracking extends AbstractBehavior<Plane> {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(NeighborTracking.class.getName());
 
+    /**
+     * Width of the guard band where beacons are also heard, relative to the
+     * sender's communication range.
+     */
+    private static final double GUARD_FACTOR = 1;
+
+    /**
+     * Relative slack over the planes' speed, to cover the rounding of their
+     * per-step increments.
+     */
+    private static final double SPEED_SLACK = 1e-6;
+
     private NeighborsCollection neighbors = new NeighborsCollection();
     private Location lastLocation;
+    private long lastTime = -1;
+
+    /** Whether the neighbors must be computed again from the known tracks */
+    private boolean stale = false;
+
+    /** Tracks known from other planes' beacons, indexed by their identifiers */
+    private Contact[] contacts = new Contact[16];
+    /** Identifiers of the planes whose tracks are currently known */
+    private int[] known = new int[16];
+    private int nKnown = 0;
+
+    /** Parameters of our own beacons, computed on the first beacon */
+    private int period = 0;
+    private double reach;
+    private double holdRange;
+
+    /** Track announced in our last beacon, advanced on every step */
+    private Kinematics.Track announced;
+    private long announcedTime;
+
+    /** Scratch location where the tracks' positions are evaluated */
+    private final Location position = new Location(0, 0);
 
     /**
      * Builds a new neighbor tracking behavior.
@@ -69,7 +124,7 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
      */
     public NeighborTracking(Plane agent) {
         super(agent);
-        lastLocation = agent.getLocation();
+        lastLocation = new Location(agent.getLocation());
     }
 
     @Override
@@ -77,6 +132,16 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
         return new Class[0];
     }
 
+    /**
+     * Get the maximum number of steps between two consecutive beacons of
+     * this agent.
+     *
+     * @return beacon period, or 0 if no beacon has been sent yet.
+     */
+    public int getBeaconPeriod() {
+        return period;
+    }
+
     /**
      * Check if the given agent is a neighbor (and is guaranteed to receive
      * any messages that we send him during this iteration)
@@ -96,6 +161,7 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
      * @return True if the given agent is a neighbor, or False otherwise.
      */
     public boolean isNeighbor(MessagingAgent agent, int iterations) {
+        update();
         if (LOG.isLoggable(Level.FINEST)) {
             LOG.log(Level.FINEST, "{1} checking if {0} will be neighbor for {2} iterations.",
                     new Object[]{agent, getAgent(), iterations});
@@ -113,9 +179,40 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
      * @return {@link Iterable} of agents that are guaranteed to remain neighbors.
      */
     public Iterable<MessagingAgent> getNeighbors(int iterations) {
+        update();
         return neighbors.get(iterations);
     }
 
+    /**
+     * Get the number of agents that are guaranteed to remain neighbors for at
+     * least <em>iterations</em> iterations.
+     * <p/>
+     * Neighbors are sorted by decreasing number of iterations, so these are
+     * the neighbors from position 0 up to (but not including) the returned
+     * count, which can be walked through {@link #getNeighbor(int)} without
+     * allocating any iterator.
+     *
+     * @param iterations required number of iterations.
+     * @return number of agents that are guaranteed to remain neighbors.
+     */
+    public int countNeighbors(int iterations) {
+        update();
+        return neighbors.count(iterations);
+    }
+
+    /**
+     * Get the neighbor at the given position, in decreasing order of the
+     * number of iterations that it is guaranteed to remain a neighbor.
+     *
+     * @see #countNeighbors(int)
+     * @param index position of the neighbor.
+     * @return neighbor at that position.
+     */
+    public MessagingAgent getNeighbor(int index) {
+        update();
+        return neighbors.agentAt(index);
+    }
+
     /**
      * Check if there is any neighbor for at least the given number of
      * iterations.
@@ -124,13 +221,39 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
      * @return True if there are neighbors, or false otherwise.
      */
     public boolean hasNeighbors(int iterations) {
+        update();
         return neighbors.hasNeighbors(iterations);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * In this case, the known tracks are advanced up to the time of our last
+     * location, forgetting those that can not be trusted anymore.
+     */
     @Override
     public void beforeMessages() {
-        neighbors.clear();
-        neighbors.add(getAgent(), Integer.MAX_VALUE);
+        int n = 0;
+        for (int k=0; k<nKnown; k++) {
+            final Contact c = contacts[known[k]];
+            while (c.time < lastTime) {
+                c.track.advance();
+                c.time++;
+            }
+            position.setLocation(c.track.getX(), c.track.getY());
+            if (lastTime - c.sent >= c.period
+                    || lastLocation.getDistance(position) > c.holdRange) {
+                if (LOG.isLoggable(Level.FINEST)) {
+                    LOG.log(Level.FINEST, "{0} forgets the track of {1}.",
+                            new Object[]{getAgent(), c.agent});
+                }
+                c.held = false;
+            } else {
+                known[n++] = known[k];
+            }
+        }
+        nKnown = n;
+        stale = true;
     }
 
     /**
@@ -140,11 +263,68 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
      */
     public void on(TrackingMessage m) {
         final MessagingAgent neighbor = m.getSender();
+        final int id = neighbor.getId();
+        if (id >= contacts.length) {
+            contacts = Arrays.copyOf(contacts, Math.max(id + 1, contacts.length*2));
+        }
+        Contact c = contacts[id];
+        if (c == null) {
+            c = new Contact(neighbor);
+            contacts[id] = c;
+        }
+        if (!c.held) {
+            if (nKnown == known.length) {
+                known = Arrays.copyOf(known, nKnown*2);
+            }
+            known[nKnown++] = id;
+            c.held = true;
+        }
+        c.track.set(m.getTrack());
+        c.time = m.getTime();
+        c.sent = m.getTime();
+        c.period = m.getPeriod();
+        c.holdRange = m.getHoldRange();
+        stale = true;
+    }
+
+    /**
+     * Compute the neighbors from the known tracks, if they have changed.
+     * <p/>
+     * A track yields a neighbor when the beacon sent at its current position
+     * would have reached us.
+     */
+    private void update() {
+        if (!stale) {
+            return;
+        }
+        stale = false;
 
+        neighbors.clear();
+        neighbors.add(getAgent(), Integer.MAX_VALUE);
+        for (int k=0; k<nKnown; k++) {
+            final Contact c = contacts[known[k]];
+            position.setLocation(c.track.getX(), c.track.getY());
+            if (position.distance(lastLocation) <= c.agent.getCommunicationRange()) {
+                addNeighbor(c.agent, position);
+            }
+        }
+    }
+
+    /**
+     * Add the given agent as a neighbor, for as many steps as it is
+     * guaranteed to stay in range.
+     *
+     * @param neighbor detected possible neighbor.
+     * @param location location of the neighbor at the time of our last
+     *                 location.
+     */
+    private void addNeighbor(MessagingAgent neighbor, Location location) {
         // Compute the number of steps that the neighbor is guaranteed to still
         // be in range.
-        LOG.log(Level.FINEST, "My location: {0}, theirs: {1}", new Object[]{lastLocation, m.getLocation()});
-        final double d = lastLocation.getDistance(m.getLocation());
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "My location: {0}, theirs: {1}", new Object[]{lastLocation, location});
+        }
+        final double d = lastLocation.getDistance(location);
 
         double d_step = getAgent().getSpeed();
         if (neighbor instanceof Plane) {
@@ -154,48 +334,196 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
         // The objective is max(n) s.t. d + d_step * n < comm_range
         // we compute that as n=int(s) where s = (comm_range - d)/d_step
         final double s = (getAgent().getCommunicationRange() - d) / d_step;
-        LOG.log(Level.FINEST, "d = {0}, d_step = {1}, range = {2}", new Object[]{d, d_step, getAgent().getCommunicationRange()});
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "d = {0}, d_step = {1}, range = {2}", new Object[]{d, d_step, getAgent().getCommunicationRange()});
+        }
         final int n = (int)s;
 
         if (n > 0) {
-            LOG.log(Level.FINER, "Adding {0} as a neighbor for {1} iterations.",
-                    new Object[]{neighbor, n});
+            if (LOG.isLoggable(Level.FINER)) {
+                LOG.log(Level.FINER, "Adding {0} as a neighbor for {1} iterations.",
+                        new Object[]{neighbor, n});
+            }
             neighbors.add(neighbor, n);
         } else {
-            LOG.log(Level.FINEST, "Ignoring {0} as a neighbor (s={1}, d_step={2}).",
-                    new Object[]{neighbor, s, d_step});
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.log(Level.FINEST, "Ignoring {0} as a neighbor (s={1}, d_step={2}).",
+                        new Object[]{neighbor, s, d_step});
+            }
         }
     }
 
     /**
      * {@inheritDoc}
      *
-     * In this case, this behavior notifies the agent exhibiting it of each
-     * and every new agent detected or lost.
+     * In this case, this behavior sends a new beacon whenever the agent's
+     * position is not the one predicted by its last beacon, or when the
+     * last beacon is about to expire.
+     * <p/>
+     * The neighbors are computed before moving on to the new location, so
+     * that they stay the same until the next iteration's messages arrive.
      */
     @Override
     public void postStep() {
-        MessagingAgent a = getAgent();
+        update();
+
+        final Plane a = getAgent();
+        final Location current = a.getLocation();
+        final long time = a.getWorld().getTime();
+        final boolean advancing = current.getX() != lastLocation.getX()
+                || current.getY() != lastLocation.getY();
+        lastLocation.setLocation(current.getX(), current.getY());
+        lastTime = time;
+
+        if (announced == null) {
+            announced = new Kinematics.Track();
+            initBeacons();
+        } else {
+            announced.advance();
+            if (time - announcedTime < period
+                    && announced.getX() == current.getX()
+                    && announced.getY() == current.getY()) {
+                return;
+            }
+        }
+
         if (LOG.isLoggable(Level.FINER)) {
             LOG.log(Level.FINER, "{0} sending beacon.", new Object[]{a});
         }
-        lastLocation = new Location(a.getLocation());
-        a.send(new TrackingMessage(lastLocation));
+        a.getTrack(announced);
+        if (!advancing) {
+            announced.stop();
+        }
+        announcedTime = time;
+        a.send(new TrackingMessage(announced, time));
+    }
+
+    /**
+     * Compute the parameters of our beacons.
+     * <p/>
+     * While a plane keeps flying as announced, the distance to any other
+     * plane changes by at most twice the maximum speed of the world's planes
+     * on each step. Hence, the period between mandatory beacons is short
+     * enough that planes out of the beacons' reach can not get in range
+     * before the next one, and receivers forget our track when it gets so
+     * far that they might have missed a newer beacon.
+     */
+    private void initBeacons() {
+        double speed = 0;
+        for (Plane p : getAgent().getWorld().getPlanes()) {
+            speed = Math.max(speed, p.getSpeed());
+        }
+        final double d_step = 2 * speed * (1 + SPEED_SLACK);
+        final double range = getAgent().getCommunicationRange();
+        final double guard = range * GUARD_FACTOR;
+
+        period = (int)Math.ceil(guard / d_step) - 1;
+        if (period > 1) {
+            holdRange = range + guard - d_step;
+        } else {
+            // Beacon on every step, just like the planes always did
+            period = 1;
+            holdRange = Double.POSITIVE_INFINITY;
+        }
+        reach = range + guard;
+    }
+
+    /**
+     * Track of another plane, as known from its beacons.
+     */
+    private static final class Contact implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final MessagingAgent agent;
+        private final Kinematics.Track track = new Kinematics.Track();
+        /** Time of the track's current position */
+        private long time;
+        /** Time when the beacon was sent */
+        private long sent;
+        private int period;
+        private double holdRange;
+        private boolean held;
+
+        Contact(MessagingAgent agent) {
+            this.agent = agent;
+        }
     }
 
     /**
      * Beacon message sent by agents that keep track of their neighbors.
      */
-    public class TrackingMessage extends AbstractMessage {
+    public class TrackingMessage extends AbstractMessage implements RangedMessage {
 
-        private final Location location;
+        private static final long serialVersionUID = 1L;
 
-        public TrackingMessage(Location location) {
-            this.location = new Location(location);
+        private final Kinematics.Track track = new Kinematics.Track();
+        private final long time;
+        private final int period;
+        private final double holdRange;
+        private final double range;
+
+        public TrackingMessage(Kinematics.Track track, long time) {
+            this.track.set(track);
+            this.time = time;
+            this.period = NeighborTracking.this.period;
+            this.holdRange = NeighborTracking.this.holdRange;
+            this.range = reach;
         }
 
+        /**
+         * @return location of the sender when this beacon was sent.
+         */
         public Location getLocation() {
-            return location;
+            return new Location(track.getX(), track.getY());
+        }
+
+        /**
+         * @return move that the sender was flying when this beacon was sent.
+         */
+        public Kinematics.Track getTrack() {
+            return track;
+        }
+
+        /**
+         * @return time when this beacon was sent.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return maximum number of steps until the sender's next beacon.
+         */
+        public int getPeriod() {
+            return period;
+        }
+
+        /**
+         * @return distance beyond which the receivers must forget the
+         *         sender's track.
+         */
+        public double getHoldRange() {
+            return holdRange;
+        }
+
+        @Override
+        public double getRange() {
+            return range;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p/>
+         * Beacons are handled by the neighbor tracking behavior itself.
+         */
+        @Override
+        public boolean isHandledBy(Object behavior) {
+            return behavior instanceof NeighborTracking;
+        }
+
+        @Override
+        public void deliverTo(Object behavior) {
+            ((NeighborTracking)behavior).on(this);
         }
 
         @Override
@@ -204,4 +532,4 @@ public class NeighborTracking extends AbstractBehavior<Plane> {
         }
     }
 
-}
\ No newline at end of file
+}
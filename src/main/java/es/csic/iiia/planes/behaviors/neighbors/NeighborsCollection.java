@@ -37,24 +37,45 @@
 package es.csic.iiia.planes.behaviors.neighbors;
 
 import es.csic.iiia.planes.MessagingAgent;
-import java.util.Collection;
-import java.util.HashMap;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.NavigableMap;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.NoSuchElementException;
 
 /**
  * Collection that holds the list of neighbors, including for how many
  * iterations are they guaranteed to still be neighbors.
+ * <p/>
+ * Neighbors are kept in primitive arrays indexed by the agents'
+ * identifiers, which are dense for the planes of a world. Entries are
+ * stamped with the current generation, so clearing the collection just
+ * starts a new generation and the entries are overwritten in place when
+ * the neighbors are detected again, without allocating anything.
+ * <p/>
+ * Neighbors are ordered by decreasing number of iterations, breaking ties by
+ * their hash codes. Hence, the neighbors guaranteed for at least some number
+ * of iterations are always a prefix of the collection, which can be walked
+ * with {@link #count(int)} and {@link #agentAt(int)}.
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-class NeighborsCollection implements Collection<NeighborEntry>
+class NeighborsCollection implements Serializable
 {
-    private Map<MessagingAgent, Integer> map = new HashMap<MessagingAgent, Integer>();
-    private TreeSet<NeighborEntry> set = new TreeSet<NeighborEntry>();
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Agent, iterations, hash code and generation of each identifier */
+    private MessagingAgent[] agents = new MessagingAgent[INITIAL_CAPACITY];
+    private int[] iters = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int generation = 1;
+
+    /** Identifiers of the current neighbors */
+    private int[] members = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private boolean sorted = true;
 
     /**
      * Adds a new neighbor to the collection.
@@ -64,24 +85,27 @@ class NeighborsCollection implements Collection<NeighborEntry>
      *              guaranteed to still be a neighbor.
      * @return True if the neighbors collection has been updated, or False otherwise.
      */
-    public boolean add(MessagingAgent a, Integer iters) {
+    public boolean add(MessagingAgent a, int iters) {
+        final int id = a.getId();
+        ensureCapacity(id);
 
-        if (map.containsKey(a)) {
-            int old_iters = map.get(a);
-            if (old_iters == iters) {
+        if (generations[id] == generation) {
+            if (this.iters[id] == iters && a.equals(agents[id])) {
                 // Re-adding an entry that is already inserted
                 return false;
             }
-
-            // We need to update the iters value
-            if (!remove(new NeighborEntry(a, old_iters))) {
-                throw new IllegalStateException("Corruption detected in this neihgbor's list");
+        } else {
+            generations[id] = generation;
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size*2);
             }
+            members[size++] = id;
         }
 
-        NeighborEntry entry = new NeighborEntry(a, iters);
-        map.put(a, iters);
-        set.add(entry);
+        agents[id] = a;
+        hashes[id] = a.hashCode();
+        this.iters[id] = iters;
+        sorted = false;
         return true;
     }
 
@@ -97,21 +121,57 @@ class NeighborsCollection implements Collection<NeighborEntry>
 
             @Override
             public Iterator<MessagingAgent> iterator() {
-                return new NeighborIterator(iterations);
+                return new NeighborIterator(count(iterations));
             }
 
         };
     }
 
+    /**
+     * Get the number of agents that are guaranteed to remain neighbors for at
+     * least <em>iterations</em> iterations.
+     *
+     * @param iterations required number of iterations.
+     * @return number of such neighbors.
+     */
+    public int count(int iterations) {
+        sort();
+        int n = 0;
+        while (n < size && iters[members[n]] >= iterations) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Get the neighbor at the given position of the collection.
+     *
+     * @param index position of the neighbor, which must be lower than
+     *              {@link #size()}.
+     * @return neighbor at that position.
+     */
+    public MessagingAgent agentAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        sort();
+        return agents[members[index]];
+    }
+
     /**
      * Check if there are any neighbors for at least the given number of
      * iterations.
      *
-     * @param iterations
-     * @return
+     * @param iterations required number of iterations.
+     * @return True if there are such neighbors, or False otherwise.
      */
     public boolean hasNeighbors(final int iterations) {
-        return set.lower(new NeighborEntry(null, iterations-1)) != null;
+        for (int i=0; i<size; i++) {
+            if (iters[members[i]] >= iterations) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -125,165 +185,113 @@ class NeighborsCollection implements Collection<NeighborEntry>
      *         <em>iters</em> iterations, or False otherwise.
      */
     public boolean contains(MessagingAgent a, int iters) {
-        if (!map.containsKey(a)) {
+        final int id = a.getId();
+        if (id < 0 || id >= generations.length || generations[id] != generation
+                || !a.equals(agents[id])) {
             return false;
         }
-
-        final int i = map.get(a);
-        return iters <= i;
+        return iters <= this.iters[id];
     }
 
-    @Override
+    /**
+     * Removes all the neighbors from the collection.
+     */
     public void clear() {
-        set.clear();
-        map.clear();
-    }
-
-    @Override
-    public int size() {
-        return map.size();
-    }
-
-    @Override
-    public boolean isEmpty() {
-        return map.isEmpty();
-    }
-
-    @Override
-    public boolean contains(Object o) {
-        return set.contains(o);
-    }
-
-    @Override
-    public Iterator<NeighborEntry> iterator() {
-        return set.iterator();
-    }
-
-    @Override
-    public Object[] toArray() {
-        return set.toArray();
-    }
-
-    @Override
-    public <T> T[] toArray(T[] ts) {
-        return set.toArray(ts);
-    }
-
-    @Override
-    public boolean add(NeighborEntry e) {
-        return add(e.agent, e.iters);
+        generation++;
+        size = 0;
+        sorted = true;
     }
 
     /**
-     * Removes the given entry from the collection.
+     * Get the number of neighbors in the collection.
      *
-     * @param e entry to remove
-     * @return True if the entry has been removed, or False otherwise.
+     * @return number of neighbors.
      */
-    public boolean remove(NeighborEntry e) {
-        boolean result = set.remove(e);
-        if (result) {
-            result = map.remove(e.agent) != null;
-        }
-        return result;
+    public int size() {
+        return size;
     }
 
     /**
-     * Removes the given neighbor from the collection.
+     * Check if the collection is empty.
      *
-     * @param a neighbor agent to remove.
-     * @return True if the neighbor has been removed, or False otherwise.
+     * @return True if there are no neighbors, or False otherwise.
      */
-    public boolean remove(MessagingAgent a) {
-        Integer niters = map.remove(a);
-        if (niters == null) {
-            return false;
-        }
-
-        return set.remove(new NeighborEntry(a, niters));
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     @Override
-    public boolean remove(Object o) {
-        if (o instanceof NeighborEntry) {
-            return remove((NeighborEntry)o);
-        }
-        if (o instanceof MessagingAgent) {
-            return remove((MessagingAgent)o);
+    public String toString() {
+        StringBuilder b = new StringBuilder("{");
+        for (int i=0; i<size; i++) {
+            if (i > 0) {
+                b.append(", ");
+            }
+            b.append(agents[members[i]]).append('=').append(iters[members[i]]);
         }
-        return false;
-    }
-
-    @Override
-    public boolean containsAll(Collection<?> clctn) {
-        return set.containsAll(clctn);
+        return b.append('}').toString();
     }
 
-    @Override
-    public boolean addAll(Collection<? extends NeighborEntry> clctn) {
-        boolean changed = false;
-
-        for (NeighborEntry e : clctn) {
-            changed = add(e) || changed;
+    private void ensureCapacity(int id) {
+        if (id < generations.length) {
+            return;
         }
-
-        return changed;
+        final int capacity = Math.max(id + 1, generations.length*2);
+        agents = Arrays.copyOf(agents, capacity);
+        iters = Arrays.copyOf(iters, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        generations = Arrays.copyOf(generations, capacity);
     }
 
-    @Override
-    public boolean removeAll(Collection<?> clctn) {
-        boolean changed = false;
-
-        for (Object e : clctn) {
-            changed = remove(e) || changed;
+    /**
+     * Sort the neighbors by decreasing number of iterations and increasing
+     * hash codes. There are just a few neighbors, and they mostly arrive in
+     * order, so an insertion sort does.
+     */
+    private void sort() {
+        if (sorted) {
+            return;
         }
-
-        return changed;
-    }
-
-    @Override
-    public boolean retainAll(Collection<?> clctn) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        for (int i=1; i<size; i++) {
+            final int id = members[i];
+            int j = i - 1;
+            while (j >= 0 && compare(members[j], id) > 0) {
+                members[j+1] = members[j];
+                j--;
+            }
+            members[j+1] = id;
+        }
+        sorted = true;
     }
 
-    @Override
-    public String toString() {
-        return map.toString();
+    private int compare(int a, int b) {
+        int r = iters[b] - iters[a];
+        if (r == 0) {
+            r = hashes[a] - hashes[b];
+        }
+        return r;
     }
 
     private class NeighborIterator implements Iterator<MessagingAgent> {
 
-        private final int iterations;
-        private final Iterator<NeighborEntry> iterator;
-        private MessagingAgent next = null;
+        private final int end;
+        private int next = 0;
 
-        public NeighborIterator(int iterations) {
-            iterator = NeighborsCollection.this.iterator();
-            this.iterations = iterations;
-            advance();
-        }
-
-        private void advance() {
-            if (iterator.hasNext()) {
-                NeighborEntry e = iterator.next();
-                if (e.iters >= iterations) {
-                    next = e.agent;
-                    return;
-                }
-            }
-            next = null;
+        public NeighborIterator(int end) {
+            this.end = end;
         }
 
         @Override
         public boolean hasNext() {
-            return next != null;
+            return next < end;
         }
 
         @Override
         public MessagingAgent next() {
-            MessagingAgent result = next;
-            advance();
-            return result;
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            return agents[members[next++]];
         }
 
         @Override
@@ -293,4 +301,4 @@ class NeighborsCollection implements Collection<NeighborEntry>
 
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.cli;
+
+import es.csic.iiia.planes.DefaultFactory;
+import es.csic.iiia.planes.Factory;
+import es.csic.iiia.planes.World;
+import es.csic.iiia.planes.util.ResultsFile;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Object in charge of executing several simulations in the same process.
+ * <p/>
+ * Simulations are independent from each other: every {@link World} has its
+ * own identifiers, random number generator and statistics, so the results of
+ * a simulation do not depend on how many of them run at once. These results
+ * are printed (and appended to the results file) along with the settings of
+ * each simulation, in the same order as the problems were given.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class BatchApp {
+    private static final Logger LOG = Logger.getLogger(BatchApp.class.getName());
+
+    private final List<Configuration> configs;
+
+    private final int jobs;
+
+    /**
+     * Default constructor.
+     *
+     * @param configurations one configuration for each simulation to run.
+     * @param jobs maximum number of simulations to run at once.
+     */
+    public BatchApp(List<Configuration> configurations, int jobs) {
+        this.configs = configurations;
+        this.jobs = jobs;
+    }
+
+    /**
+     * Runs all the simulations, and waits for them to finish.
+     */
+    public void run() {
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        List<Future<String>> results = new ArrayList<Future<String>>();
+        for (Configuration config : configs) {
+            results.add(executor.submit(new Simulation(config)));
+        }
+        executor.shutdown();
+
+        for (int i=0, len=configs.size(); i<len; i++) {
+            final Configuration config = configs.get(i);
+            try {
+                final String result = config.toString() + "\n" + results.get(i).get();
+                System.out.print(result);
+                ResultsFile.append(result);
+            } catch (InterruptedException ex) {
+                LOG.log(Level.SEVERE, null, ex);
+                executor.shutdownNow();
+                return;
+            } catch (ExecutionException ex) {
+                LOG.log(Level.SEVERE, "Simulation of \"" + config.getProblemFile()
+                        + "\" failed.", ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Single simulation, that returns its results.
+     */
+    private static class Simulation implements Callable<String> {
+        private final Configuration config;
+
+        public Simulation(Configuration config) {
+            this.config = config;
+        }
+
+        @Override
+        public String call() {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            PrintStream output = new PrintStream(buffer);
+
+            Factory f = new DefaultFactory(config);
+            World world = f.buildWorld();
+            world.setOutput(output);
+            world.init(config.getProblemDefinition());
+            world.run();
+
+            output.close();
+            return buffer.toString();
+        }
+    }
+
+}
@@ -37,9 +37,12 @@
  */
 package es.csic.iiia.planes.cli;
 
+import es.csic.iiia.planes.util.ResultsFile;
 import org.apache.commons.cli.*;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
@@ -60,6 +63,11 @@ public class Cli {
      */
     private static Options options = new Options();
 
+    /**
+     * Maximum number of simulations to run at once.
+     */
+    private static int jobs = 1;
+
     /**
      * Cli's entry point.
      *
@@ -71,6 +79,11 @@ public class Cli {
         options.addOption("d", "dump-settings", false, "dump the default settings to standard output. This can be used to prepare a settings file.");;
         options.addOption("g", "gui", false, "graphically display the simulation.");
         options.addOption("h", "help", false, "show this help message.");
+        options.addOption(OptionBuilder.withArgName("n")
+                .hasArg()
+                .withDescription("run up to <n> simulations at once when given several problems (default 1).")
+                .withLongOpt("jobs")
+                .create('j'));
         options.addOption(OptionBuilder.withArgName("setting=value")
                 .hasArgs(2)
                 .withValueSeparator()
@@ -87,14 +100,19 @@ public class Cli {
                 .withDescription("Output only the resolved settings, but do not run the simulation.")
                 .create('t'));
 
-        Configuration config = parseOptions(args);
-        CliApp app = new CliApp(config);
-        app.run();
+        List<Configuration> configs = parseOptions(args);
+        if (configs.size() == 1) {
+            CliApp app = new CliApp(configs.get(0));
+            app.run();
+        } else {
+            BatchApp app = new BatchApp(configs, jobs);
+            app.run();
+        }
     }
 
     private static void showHelp() {
         HelpFormatter formatter = new HelpFormatter();
-        formatter.printHelp("simulator [options] <problem>", options);
+        formatter.printHelp("simulator [options] <problem> [<problem> ...]", options);
         System.exit(1);
     }
 
@@ -102,9 +120,10 @@ public class Cli {
      * Parse the provided list of arguments according to the program's options.
      *
      * @param in_args list of input arguments.
-     * @return a configuration object set according to the input options.
+     * @return a configuration object for each of the given problems, set
+     *         according to the input options.
      */
-    private static Configuration parseOptions(String[] in_args) {
+    private static List<Configuration> parseOptions(String[] in_args) {
         CommandLineParser parser = new PosixParser();
         CommandLine line = null;
         Properties settings = loadDefaultSettings();
@@ -143,33 +162,43 @@ public class Cli {
         if (args.length < 1) {
             showHelp();
         }
-        settings.setProperty("problem", args[0]);
-
-        Configuration c = new Configuration(settings);
-        System.out.println(c.toString());
-        /**
-         * Modified by Guillermo B.
-         * Print settings to a result file, titled "results.txt"
-         */
-        try{
-            FileWriter fw = new FileWriter("results.txt", true);
-            BufferedWriter bw = new BufferedWriter(fw);
-            PrintWriter out = new PrintWriter(bw);
-            String[] results = c.toString().split("\n");
-            for (String s:results) {
-                out.println(s);
+        if (line.hasOption('j')) {
+            jobs = Integer.valueOf(line.getOptionValue('j'));
+            if (jobs < 1) {
+                throw new IllegalArgumentException("The number of jobs must be at least 1.");
             }
-            //out.println(results[2]);
-            //out.println(results[8]);
-            out.close();
         }
-        catch (IOException e) {
+
+        List<Configuration> configs = new ArrayList<Configuration>();
+        if (args.length > 1) {
+            // Several simulations can not share the screen
+            if (line.hasOption('g')) {
+                throw new IllegalArgumentException("The gui can only display one problem at a time.");
+            }
+            settings.setProperty("quiet", "true");
+        }
+        for (String problem : args) {
+            settings.setProperty("problem", problem);
+            configs.add(new Configuration(settings));
+        }
+
+        // When running several problems, settings are printed along with
+        // the results of each simulation.
+        if (configs.size() == 1 || line.hasOption('t')) {
+            for (Configuration c : configs) {
+                System.out.println(c.toString());
+                /**
+                 * Modified by Guillermo B.
+                 * Print settings to a result file, titled "results.txt"
+                 */
+                ResultsFile.append(c.toString());
+            }
         }
 
         if (line.hasOption('t')) {
             System.exit(0);
         }
-        return c;
+        return configs;
     }
 
     /**
@@ -103,6 +103,11 @@ public final class Configuration {
      */
     private boolean quiet;
 
+    /**
+     * Seed of the simulation's random number generators.
+     */
+    private long seed;
+
     /**
      * Problem's file name.
      */
@@ -203,6 +208,11 @@ public final class Configuration {
     private DistanceHeuristic crowdDistanceHeuristic;
     private long rescueTime;
 
+    /* ENGINE specific stuff */
+    private boolean batchDelivery;
+    private String traceFile;
+    private int traceSize;
+
     private LinkedHashMap<String, String> values = new LinkedHashMap<String, String>();
     private CostFactorFactory<Factor<?>> msCostFactorFactory;
     private WorkloadFunctionFactory msWorkloadFunctionFactory;
@@ -246,6 +256,9 @@ public final class Configuration {
         gui = fetch(settings, getBooleanValues(), "gui");
         quiet = fetch(settings, getBooleanValues(), "quiet");
 
+        seed = Long.valueOf(settings.getProperty("seed"));
+        values.put("seed", String.valueOf(seed));
+
         searchPowerPenalty = Long.valueOf(settings.getProperty("search-power-penalty"));
         values.put("search power-penalty", String.valueOf(searchPowerPenalty));
 
@@ -406,6 +419,16 @@ public final class Configuration {
             values.put("rescue-time", String.valueOf(rescueTime));
         }
 
+        // Engine settings
+        batchDelivery = fetch(settings, getBooleanValues(), "engine-batch-delivery");
+        traceFile = settings.getProperty("engine-trace-file", "").trim();
+        values.put("engine-trace-file", traceFile);
+        traceSize = Integer.valueOf(settings.getProperty("engine-trace-size"));
+        values.put("engine-trace-size", String.valueOf(traceSize));
+        if (!traceFile.isEmpty() && traceSize < 1) {
+            throw new IllegalArgumentException("The size of the trace must be at least 1.");
+        }
+
     }
 
     @Override
@@ -418,6 +441,17 @@ public final class Configuration {
         return buf.toString();
     }
 
+    /**
+     * Get the value of a setting, as shown in the settings' listing.
+     *
+     * @param key name of the setting.
+     * @return value of the setting, or null if it is not used by this
+     *         configuration.
+     */
+    public String getValue(String key) {
+        return values.get(key);
+    }
+
     /**
      * @return the gui
      */
@@ -432,6 +466,13 @@ public final class Configuration {
         return quiet;
     }
 
+    /**
+     * @return the seed of the simulation's random number generators.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * @return the problemFile
      */
@@ -629,6 +670,23 @@ public final class Configuration {
 
     public long getRescueTime() { return rescueTime; }
 
+    /**
+     * @return true if all the messages for a plane within a step should be
+     *         delivered to it at once, at the end of the step.
+     */
+    public boolean isBatchDelivery() { return batchDelivery; }
+
+    /**
+     * @return the file where the trace of events is written at the end of the
+     *         simulation, or an empty string if tracing is disabled.
+     */
+    public String getTraceFile() { return traceFile; }
+
+    /**
+     * @return the maximum number of (latest) events kept in the trace.
+     */
+    public int getTraceSize() { return traceSize; }
+
     private Map<String, OperatorStrategy> getOperatorStrategies() {
         return new HashMap<String, OperatorStrategy>() {{
            put("nearest", new Nearest());
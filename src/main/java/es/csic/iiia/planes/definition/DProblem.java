@@ -57,9 +57,10 @@ public class DProblem {
     private int width = 1000;
     private int height = 1000;
 
-    private int widthRegions = 100;
-    private int heightRegions = 100;
-    private int blockSize = 3;
+    /** Dimensions of the search grid, or 0 when the problem does not state them */
+    private int widthRegions = 0;
+    private int heightRegions = 0;
+    private int blockSize = 0;
 
     private long duration = 3600*24*30;
     private int nCrisis = 5;
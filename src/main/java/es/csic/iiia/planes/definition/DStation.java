@@ -45,4 +45,6 @@ import es.csic.iiia.planes.Station;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class DStation extends DLocation {
+    private static final long serialVersionUID = 1L;
+
 }
\ No newline at end of file
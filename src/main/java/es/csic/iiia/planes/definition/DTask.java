@@ -45,6 +45,8 @@ import es.csic.iiia.planes.Task;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class DTask extends DLocation {
+    private static final long serialVersionUID = 1L;
+
     private long time;
 
     private int nCrisis;
@@ -39,13 +39,15 @@ package es.csic.iiia.planes.evaluation;
 import es.csic.iiia.planes.Plane;
 import es.csic.iiia.planes.Task;
 
+import java.io.Serializable;
+
 /**
  * Definition of an evaluation strategy, used by the planes to compute the cost
  * of performing a task.
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface EvaluationStrategy<T extends Plane> {
+public interface EvaluationStrategy<T extends Plane> extends Serializable {
 
     /**
      * Evaluate the cost of performing the given Task.
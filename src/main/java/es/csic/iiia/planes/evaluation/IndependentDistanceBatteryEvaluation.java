@@ -49,6 +49,8 @@ import es.csic.iiia.planes.World;
  */
 public class IndependentDistanceBatteryEvaluation implements EvaluationStrategy<Plane> {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Computes the cost for <em>plane</em> to perform <em>task</em>.
      * <p/>
@@ -48,6 +48,8 @@ import es.csic.iiia.planes.cli.Configuration;
  */
 public class PercentageBatteryEvaluation implements EvaluationStrategy<Plane> {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Computes the cost for <em>plane</em> to perform <em>task</em>.
      * <p/>
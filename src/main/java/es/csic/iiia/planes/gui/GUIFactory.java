@@ -49,6 +49,8 @@ import es.csic.iiia.planes.cli.Configuration;
  */
 public class GUIFactory extends AbstractFactory {
 
+    private static final long serialVersionUID = 1L;
+
     public GUIFactory(Configuration config) {
         super(config);
     }
@@ -52,6 +52,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
 import java.awt.image.VolatileImage;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -65,6 +66,8 @@ import java.util.logging.Logger;
  */
 public class GUIWorld extends AbstractWorld {
 
+    private static final long serialVersionUID = 1L;
+
     private static final int BUFFER_DIMENSION = 10;
 
     private Display display;
@@ -188,7 +191,7 @@ public class GUIWorld extends AbstractWorld {
     }
 
     public Task getTaskAt(Location l) {
-        List<Task> ts = getTasks();
+        List<Task> ts = new ArrayList<Task>(getTasks());
         for (int i=ts.size()-1; i>=0; i--) {
             final Task t = ts.get(i);
             Location l2 = t.getLocation();
@@ -44,6 +44,8 @@ import es.csic.iiia.planes.Plane;
  */
 public class DoNothing implements IdleStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public boolean idleAction(Plane plane) {
         return false;
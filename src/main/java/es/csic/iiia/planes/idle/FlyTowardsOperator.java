@@ -48,6 +48,8 @@ import es.csic.iiia.planes.Plane;
  */
 public class FlyTowardsOperator implements IdleStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public boolean idleAction(Plane plane) {
         Location pl = plane.getLocation();
@@ -38,7 +38,6 @@ package es.csic.iiia.planes.idle;
 
 import es.csic.iiia.planes.Operator;
 import es.csic.iiia.planes.Plane;
-import java.util.Random;
 import java.util.logging.Logger;
 
 /**
@@ -50,13 +49,14 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class FlyTowardsOperatorP implements IdleStrategy {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(FlyTowardsOperatorP.class.getName());
 
     private long n_steps = 0;
     private long last_time = 0;
     private long timeout = 100;
     private boolean moving = false;
-    private static Random rand = new Random(0L);
 
     @Override
     public boolean idleAction(Plane plane) {
@@ -65,9 +65,9 @@ public class FlyTowardsOperatorP implements IdleStrategy {
         if (cur_time != last_time + 1) {
             n_steps = 1;
 
-            double r = rand.nextDouble();
+            double r = plane.getRandom().nextDouble();
             moving = false;
-            timeout = 1 + rand.nextInt(10*60*60*24);
+            timeout = 1 + plane.getRandom().nextInt(10*60*60*24);
         } else {
             n_steps++;
         }
@@ -38,6 +38,8 @@ package es.csic.iiia.planes.idle;
 
 import es.csic.iiia.planes.Plane;
 
+import java.io.Serializable;
+
 /**
  * Defines pluggable strategies of what to do when a plane is idle.
  * <p/>
@@ -46,7 +48,7 @@ import es.csic.iiia.planes.Plane;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface IdleStrategy {
+public interface IdleStrategy extends Serializable {
 
     /**
      * Evaluates actions to perform when a plane is idle.
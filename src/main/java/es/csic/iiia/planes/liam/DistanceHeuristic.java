@@ -2,6 +2,8 @@ package es.csic.iiia.planes.liam;
 
 import es.csic.iiia.planes.Block;
 
+import java.io.Serializable;
+
 /**
  * Definition of a block distance heuristic, used by LIAM planes to compute whether
  * the next possible search block is too close to a nearby neighbor agent.
@@ -9,6 +11,6 @@ import es.csic.iiia.planes.Block;
  * Created by Guillermo on 8/31/2016.
  * @author Guillermo <gbau@mit.edu>
  */
-public interface DistanceHeuristic {
+public interface DistanceHeuristic extends Serializable {
     public boolean checkNearby(Block searchBlock, Block nearbyBlock, double crowdDistance);
 }
@@ -13,6 +13,8 @@ import es.csic.iiia.planes.cli.Configuration;
  */
 public class LIAMBehavior extends AbstractBehavior{
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Builds an auctioning behavior for the given agent.
      *
@@ -30,6 +32,13 @@ public class LIAMBehavior extends AbstractBehavior{
     @Override
     public void initialize() {
         super.initialize();
+        readConfiguration();
+    }
+
+    /**
+     * Reads the plane's search parameters from the world's configuration.
+     */
+    public void readConfiguration() {
         final Configuration config = getAgent().getWorld().getFactory().getConfiguration();
 
         getAgent().setEagleCrowdDistance(config.getEagleCrowdDistance());
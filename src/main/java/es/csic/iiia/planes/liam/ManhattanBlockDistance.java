@@ -8,6 +8,8 @@ import es.csic.iiia.planes.Block;
  * Created by Guillermo on 8/31/2016.
  * @author Guillermo <gbau@mit.edu> */
 public class ManhattanBlockDistance implements DistanceHeuristic{
+    private static final long serialVersionUID = 1L;
+
     @Override
     public boolean checkNearby(Block searchBlock, Block nearbyBlock, double crowdDistance) {
         double xDistance = Math.abs(nearbyBlock.getxLoc() - searchBlock.getxLoc());
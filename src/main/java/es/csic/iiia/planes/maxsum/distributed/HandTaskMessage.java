@@ -46,6 +46,8 @@ import es.csic.iiia.planes.messaging.AbstractMessage;
  */
 public class HandTaskMessage extends AbstractMessage {
 
+    private static final long serialVersionUID = 1L;
+
     private final Task task;
 
     /**
@@ -66,4 +68,28 @@ public class HandTaskMessage extends AbstractMessage {
         return task;
     }
 
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle the messages handing over tasks.
+     */
+    public interface Handler {
+
+        /**
+         * React to a message handing over a task.
+         *
+         * @param message received.
+         */
+        public void on(HandTaskMessage message);
+
+    }
+
 }
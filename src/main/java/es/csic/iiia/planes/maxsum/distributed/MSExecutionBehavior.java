@@ -50,7 +50,11 @@ import java.util.logging.Logger;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public class MSExecutionBehavior extends AbstractBehavior<MSPlane> {
+public class MSExecutionBehavior extends AbstractBehavior<MSPlane>
+    implements MSMessage.Handler
+{
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MSExecutionBehavior.class.getName());
 
     public MSExecutionBehavior(MSPlane plane) {
@@ -73,10 +77,13 @@ public class MSExecutionBehavior extends AbstractBehavior<MSPlane> {
      *
      * @param msg message to collect.
      */
+    @Override
     public void on(MSMessage msg) {
         Factor<FactorID> f = getAgent().getFactor(msg.recipientFactor);
         if (f == null) {
-            LOG.log(Level.FINER, "Factor {0} does not exist in {1}. Recently completed?", new Object[]{msg.recipientFactor, getAgent()});
+            if (LOG.isLoggable(Level.FINER)) {
+                LOG.log(Level.FINER, "Factor {0} does not exist in {1}. Recently completed?", new Object[]{msg.recipientFactor, getAgent()});
+            }
             return;
         }
         f.receive(msg.value, msg.senderFactor);
@@ -89,8 +96,10 @@ public class MSExecutionBehavior extends AbstractBehavior<MSPlane> {
         // Update costs according to the current positions
         final CostFactor<FactorID> planeFactor = plane.getPlaneFactor();
         for (FactorID id : planeFactor.getNeighbors()) {
-            LOG.log(Level.FINEST, "{0}''s potential for {1}: {2}",
-                    new Object[]{plane, id.task, plane.getCost(id.task)});
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.log(Level.FINEST, "{0}''s potential for {1}: {2}",
+                        new Object[]{plane, id.task, plane.getCost(id.task)});
+            }
             planeFactor.setPotential(id, plane.getCost(id.task));
         }
     }
@@ -46,6 +46,8 @@ import es.csic.iiia.planes.messaging.AbstractMessage;
  */
 public class MSMessage extends AbstractMessage {
 
+    private static final long serialVersionUID = 1L;
+
     public final FactorID senderFactor;
     public final FactorID recipientFactor;
     public final double value;
@@ -61,4 +63,28 @@ public class MSMessage extends AbstractMessage {
         return senderFactor + "[" + getSender() + "] -> " + recipientFactor + "[" + getRecipient() + "] : " + value;
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle max-sum messages.
+     */
+    public interface Handler {
+
+        /**
+         * React to a max-sum message.
+         *
+         * @param message received.
+         */
+        public void on(MSMessage message);
+
+    }
+
+}
@@ -55,6 +55,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class MSPlane extends AbstractPlane {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MSPlane.class.getName());
 
     private static final MaxOperator operator = new Minimize();
@@ -125,7 +127,9 @@ public class MSPlane extends AbstractPlane {
 
     @Override
     protected void taskCompleted(Task t) {
-        LOG.log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} completes {1}", new Object[]{this, t});
+        }
 
         // TODO: I think this is not necessary
         //planeFactor.removeNeighbor(new FactorID(this, t));
@@ -136,7 +140,9 @@ public class MSPlane extends AbstractPlane {
     @Override
     protected void taskAdded(Task t) {
         // Create a node for this task
-        LOG.log(Level.FINE, "{0} now owns {1}", new Object[]{this, t});
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} now owns {1}", new Object[]{this, t});
+        }
 
         FactorID id = new FactorID(this, t);
         createTaskFactor(id);
@@ -147,7 +153,9 @@ public class MSPlane extends AbstractPlane {
     @Override
     protected void taskRemoved(Task t) {
         // Cleanup any actions done at taskAdded...
-        LOG.log(Level.FINE, "{0} is no longer the owner of {1}", new Object[]{this, t});
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} is no longer the owner of {1}", new Object[]{this, t});
+        }
 
         Factor<FactorID> taskFactor = taskFactors.remove(new FactorID(this, t));
         taskFactor.clearNeighbors();
@@ -278,7 +286,7 @@ public class MSPlane extends AbstractPlane {
     }
 
     private void setNextBlockBasic() {
-        Random rnd = new Random();
+        Random rnd = getRandom();
         if (getWorld().getUnassignedBlocks().isEmpty()){
             idleAction();
             return;
@@ -295,7 +303,10 @@ public class MSPlane extends AbstractPlane {
      */
     private void triggerTaskFound(Block b) {
         Task t = b.getSurvivor();
-        getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        if (getLog().isLoggable(Level.FINE)) {
+            getLog().log(Level.FINE, "{0} finds {1}", new Object[]{this, t});
+        }
+        trace(EVENT_FINDS, t);
         getCompletedLocations().add(t.getLocation());
         //TODO: Change to set as discovered and put the location in the operator's list of survivors in need of rescue
         tasksFound.add(t);
@@ -52,7 +52,11 @@ import java.util.logging.Logger;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public class MSTasksDecideBehavior extends AbstractBehavior<MSPlane> {
+public class MSTasksDecideBehavior extends AbstractBehavior<MSPlane>
+    implements HandTaskMessage.Handler
+{
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MSTasksDecideBehavior.class.getName());
 
     public MSTasksDecideBehavior(MSPlane agent) {
@@ -72,10 +76,13 @@ public class MSTasksDecideBehavior extends AbstractBehavior<MSPlane> {
      *
      * @param msg message hading a task to us.
      */
+    @Override
     public void on(HandTaskMessage msg) {
         getAgent().addTask(msg.getTask());
-        LOG.log(Level.FINER, "[{2}] {0} incorporates {1}",
-                new Object[]{getAgent(), msg.getTask(), getAgent().getWorld().getTime()});
+        if (LOG.isLoggable(Level.FINER)) {
+            LOG.log(Level.FINER, "[{2}] {0} incorporates {1}",
+                    new Object[]{getAgent(), msg.getTask(), getAgent().getWorld().getTime()});
+        }
     }
 
     /**
@@ -100,11 +107,15 @@ public class MSTasksDecideBehavior extends AbstractBehavior<MSPlane> {
             final Task t = tasks.get(i);
             final SelectorFactor<FactorID> f = p.getTaskFactor(t);
             if (f.select() == null) {
-                LOG.log(Level.FINE, "{0} does not like any plane?!", t);
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.log(Level.FINE, "{0} does not like any plane?!", t);
+                }
                 continue;
             }
             final Plane choice = f.select().plane;
-            LOG.log(Level.FINER, "[{2}] {0} chooses {1} (inside {3})", new Object[]{f, choice, getAgent().getWorld().getTime(), getAgent()});
+            if (LOG.isLoggable(Level.FINER)) {
+                LOG.log(Level.FINER, "[{2}] {0} chooses {1} (inside {3})", new Object[]{f, choice, getAgent().getWorld().getTime(), getAgent()});
+            }
             if (choice != p && choice != null) {
                 relocateTask(t, choice);
             }
@@ -122,7 +133,9 @@ public class MSTasksDecideBehavior extends AbstractBehavior<MSPlane> {
         getAgent().removeTask(t);
         HandTaskMessage msg = new HandTaskMessage(t);
         msg.setRecipient(choice);
-        LOG.log(Level.FINER, "{0} hands {1} to {2}", new Object[]{this.getAgent(), t, choice});
+        if (LOG.isLoggable(Level.FINER)) {
+            LOG.log(Level.FINER, "{0} hands {1} to {2}", new Object[]{this.getAgent(), t, choice});
+        }
         getAgent().send(msg);
     }
 
@@ -54,6 +54,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class MSUpdateGraphBehavior extends AbstractBehavior<MSPlane> {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MSUpdateGraphBehavior.class.getName());
 
     private NeighborTracking tracker;
@@ -120,7 +122,8 @@ public class MSUpdateGraphBehavior extends AbstractBehavior<MSPlane> {
         int nPendingTasks = 0;
         List<MSPlane> neighbors = plane.getNeighbors();
         neighbors.clear();
-        for (MessagingAgent a : tracker.getNeighbors(getConfiguration().getMsIterations())) {
+        for (int i=0, n=tracker.countNeighbors(getConfiguration().getMsIterations()); i<n; i++) {
+            final MessagingAgent a = tracker.getNeighbor(i);
             MSPlane p = (MSPlane)a;
             neighbors.add(p);
 
@@ -45,6 +45,8 @@ import es.csic.iiia.planes.MessagingAgent;
  */
 public abstract class AbstractMessage implements Message {
 
+    private static final long serialVersionUID = 1L;
+
     /**
      * Get the message's sender.
      */
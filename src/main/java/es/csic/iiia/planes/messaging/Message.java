@@ -38,12 +38,14 @@ package es.csic.iiia.planes.messaging;
 
 import es.csic.iiia.planes.MessagingAgent;
 
+import java.io.Serializable;
+
 /**
  * Base type for any messages exchanged by {@link MessagingAgent}s.
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface Message {
+public interface Message extends Serializable {
 
     /**
      * Get the sender of this message.
@@ -75,4 +77,23 @@ public interface Message {
      */
     public void setRecipient(MessagingAgent recipient);
 
+    /**
+     * Check whether the given behavior handles this type of message.
+     * <p/>
+     * Each type of message declares the interface that its handlers must
+     * implement, and behaviors react to it by implementing that interface.
+     *
+     * @param behavior candidate handler.
+     * @return true if the behavior handles this type of message.
+     */
+    public boolean isHandledBy(Object behavior);
+
+    /**
+     * Hand this message over to the given behavior.
+     *
+     * @see #isHandledBy(Object)
+     * @param behavior that handles this type of message.
+     */
+    public void deliverTo(Object behavior);
+
 }
\ No newline at end of file
@@ -34,54 +34,24 @@
  * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
  * POSSIBILITY OF SUCH DAMAGE.
  */
-package es.csic.iiia.planes.behaviors.neighbors;
+package es.csic.iiia.planes.messaging;
 
 import es.csic.iiia.planes.MessagingAgent;
 
 /**
- * Represents an entry in the NeighborList
+ * Message that reaches the agents within its own range, instead of the
+ * sender's {@link MessagingAgent#getCommunicationRange()}.
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-class NeighborEntry implements Comparable<NeighborEntry> {
+public interface RangedMessage extends Message {
 
-    public final int iters;
-    public final MessagingAgent agent;
+    /**
+     * Get the range of this message.
+     *
+     * @return maximum distance from the sender to the agents that receive
+     *         this message.
+     */
+    public double getRange();
 
-    protected NeighborEntry(MessagingAgent agent, int iters) {
-        this.agent = agent;
-        this.iters = iters;
-    }
-
-    @Override
-    public int compareTo(NeighborEntry o) {
-        int r = o.iters - iters;
-        if (r == 0 && agent != null && o.agent != null) {
-            r = agent.hashCode() - o.agent.hashCode();
-        }
-        return r;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (o == null) return false;
-        if (!(o instanceof NeighborEntry)) return false;
-
-        NeighborEntry other = (NeighborEntry)o;
-        return agent.equals(other.agent) && iters == other.iters;
-    }
-
-    @Override
-    public int hashCode() {
-        int hash = 5;
-        hash = 67 * hash + (this.agent != null ? this.agent.hashCode() : 0);
-        hash = 67 * hash + iters;
-        return hash;
-    }
-
-    @Override
-    public String toString() {
-        return "(" + agent + ":" + iters + ")";
-    }
-
-}
\ No newline at end of file
+}
@@ -49,6 +49,8 @@ import java.util.TreeMap;
  */
 public abstract class AbstractAllocationStrategy implements AllocationStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     protected Task getNearest(OmniscientPlane p, ArrayList<Task> candidates) {
         double mind = Double.MAX_VALUE;
         Task best = null;
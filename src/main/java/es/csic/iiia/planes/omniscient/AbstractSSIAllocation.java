@@ -55,6 +55,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public abstract class AbstractSSIAllocation extends AbstractAllocationStrategy {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(SSIAllocation.class.getName());
     Map<OmniscientPlane, PathCost> assignments = new TreeMap<OmniscientPlane, PathCost>();
 
@@ -39,6 +39,7 @@ package es.csic.iiia.planes.omniscient;
 import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.World;
 import es.csic.iiia.planes.MessagingAgent;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -51,6 +52,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class HungarianMethodAllocation extends AbstractAllocationStrategy {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(HungarianMethodAllocation.class.getName());
 
     @Override
@@ -71,11 +74,10 @@ public class HungarianMethodAllocation extends AbstractAllocationStrategy {
         TreeMap<OmniscientPlane, Task> assignmentMap,
         TreeMap<Task, OmniscientPlane> reverseMap)
     {
-        List<Task> tasks = world.getTasks();
         final double maxWeight = world.getSpace().getDimension().height + world.getSpace().getDimension().width;
 
         // Remove tasks that can not be seen by any plane
-        Iterator<Task> it = tasks.iterator();
+        Iterator<Task> it = world.getTasks().iterator();
         while (it.hasNext()) {
             final Task t = it.next();
             boolean visible = false;
@@ -89,6 +91,7 @@ public class HungarianMethodAllocation extends AbstractAllocationStrategy {
                 it.remove();
             }
         }
+        List<Task> tasks = new ArrayList<Task>(world.getTasks());
 
         // Compute the cost matrix
         double[][] costMatrix = new double[planes.length][tasks.size()+planes.length];
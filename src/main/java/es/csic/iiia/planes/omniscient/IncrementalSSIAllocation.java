@@ -51,6 +51,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class IncrementalSSIAllocation extends AbstractSSIAllocation {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(IncrementalSSIAllocation.class.getName());
 
     @Override
@@ -74,7 +76,9 @@ public class IncrementalSSIAllocation extends AbstractSSIAllocation {
         int best    = path.path.size();
         double cost = last.distance(tl);
 
-        LOG.log(Level.FINEST, "Task {0} extra cost: {0}", new Object[]{t, cost});
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "Task {0} extra cost: {0}", new Object[]{t, cost});
+        }
         return new BestPosition(best, cost, path.cost + cost);
     }
 
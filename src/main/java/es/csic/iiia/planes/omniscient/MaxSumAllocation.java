@@ -57,6 +57,8 @@ import java.util.logging.Logger;
  */
 @SuppressWarnings("unchecked")
 public class MaxSumAllocation extends AbstractAllocationStrategy {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(MaxSumAllocation.class.getName());
 
     private final static MaxOperator msOperator = new Minimize();
@@ -92,7 +94,9 @@ public class MaxSumAllocation extends AbstractAllocationStrategy {
             selectors.put(t, s);
             init(s);
             factors.add(s);
-            LOG.log(Level.FINEST, "Created {0} for {1}", new Object[]{s, t});
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.log(Level.FINEST, "Created {0} for {1}", new Object[]{s, t});
+            }
         }
 
         // Create a cost factor for each plane
@@ -102,7 +106,9 @@ public class MaxSumAllocation extends AbstractAllocationStrategy {
             init(c);
             factors.add(c);
             cost2plane.put(c, p);
-            LOG.log(Level.FINEST, "Created {0} for {1}", new Object[]{c, p});
+            if (LOG.isLoggable(Level.FINEST)) {
+                LOG.log(Level.FINEST, "Created {0} for {1}", new Object[]{c, p});
+            }
 
             // Now link it with all the selectors of the tasks it can see
             for(Task t : visibilityMap.get(p)) {
@@ -110,7 +116,9 @@ public class MaxSumAllocation extends AbstractAllocationStrategy {
                 s.addNeighbor(c);
                 c.addNeighbor(s);
                 c.setPotential(s, p.getCost(t));
-                LOG.log(Level.FINEST, "Linked {0} with {1} (p: {2})", new Object[]{c, p, p.getCost(t)});
+                if (LOG.isLoggable(Level.FINEST)) {
+                    LOG.log(Level.FINEST, "Linked {0} with {1} (p: {2})", new Object[]{c, p, p.getCost(t)});
+                }
             }
         }
 
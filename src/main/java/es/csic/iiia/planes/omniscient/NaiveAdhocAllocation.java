@@ -49,6 +49,8 @@ import java.util.TreeMap;
  */
 public class NaiveAdhocAllocation extends AbstractAllocationStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public String getName() {
         return "adhoc";
@@ -57,6 +57,8 @@ import java.util.logging.Logger;
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
 public class NofirstSSIAllocation extends AbstractSSIAllocation {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(NofirstSSIAllocation.class.getName());
 
     @Override
@@ -103,8 +105,10 @@ public class NofirstSSIAllocation extends AbstractSSIAllocation {
             }
         }
 
-        LOG.log(Level.FINEST, "Best position for {0} in {1}: {2} ({3})", new Object[]{t, p, best, minCost});
-        LOG.log(Level.FINEST, "Current path: {0}", path);
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "Best position for {0} in {1}: {2} ({3})", new Object[]{t, p, best, minCost});
+            LOG.log(Level.FINEST, "Current path: {0}", path);
+        }
         return new BestPosition(best, minCost, path.cost + minCost);
     }
 
@@ -36,13 +36,11 @@
  */
 package es.csic.iiia.planes.omniscient;
 
-import es.csic.iiia.planes.Location;
 import es.csic.iiia.planes.Operator;
 import es.csic.iiia.planes.Plane;
 import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.World;
 import es.csic.iiia.planes.operator_behavior.OperatorStrategy;
-import java.util.List;
 
 /**
  *
@@ -50,31 +48,32 @@ import java.util.List;
  */
 public class Omniscient implements OperatorStrategy {
 
-    private static OmniscientGod god = new OmniscientGod();
+    private static final long serialVersionUID = 1L;
 
-    static Task getNextTask(OmniscientPlane plane) {
-        return god.getNextTask(plane);
-    }
-
-    static void taskCompleted(Task t) {
-        god.taskCompleted(t);
-    }
+    /**
+     * Get the omniscient god of the given world.
+     *
+     * Each world has its own god, which is shared by all of its omniscient
+     * planes. It is created when the first of these planes is initialized.
+     *
+     * @param w world whose god to get.
+     * @return omniscient god of the world.
+     */
+    static OmniscientGod getGod(World w) {
+        for (Plane p : w.getPlanes()) {
+            if (p instanceof OmniscientPlane && ((OmniscientPlane)p).getGod() != null) {
+                return ((OmniscientPlane)p).getGod();
+            }
+        }
 
-    static void iter(long time) {
-        god.iter(time);
-    }
-
-    static void initialize(World w) {
+        OmniscientGod god = new OmniscientGod();
         god.initialize(w);
-    }
-
-    static List<Location> getPlannedLocations(OmniscientPlane plane) {
-        return god.getPlannedLocations(plane);
+        return god;
     }
 
     @Override
     public boolean submitTask(World w, Operator o, Task t) {
-        return god.addTask(o, t);
+        return getGod(w).addTask(o, t);
     }
 
 }
@@ -40,9 +40,11 @@ import es.csic.iiia.planes.Location;
 import es.csic.iiia.planes.Operator;
 import es.csic.iiia.planes.Plane;
 import es.csic.iiia.planes.Task;
+import es.csic.iiia.planes.TaskHolderIndex;
 import es.csic.iiia.planes.World;
 import es.csic.iiia.planes.cli.Configuration;
 import es.csic.iiia.planes.MessagingAgent;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -57,12 +59,15 @@ import java.util.logging.Logger;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-class OmniscientGod {
+class OmniscientGod implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(OmniscientGod.class.getName());
 
     private World world = null;
     private OmniscientPlane[] planes;
     private TreeMap<MessagingAgent, Set<Task>> visibilityMap = new TreeMap<MessagingAgent, Set<Task>>();
+    private TaskHolderIndex<MessagingAgent> visibilityIndex = new TaskHolderIndex<MessagingAgent>();
     private TreeMap<OmniscientPlane, Task> assignmentMap = new TreeMap<OmniscientPlane, Task>();
     private TreeMap<Task, OmniscientPlane> reverseMap = new TreeMap<Task, OmniscientPlane>();
     private boolean[][] planeVisibility;
@@ -171,17 +176,31 @@ class OmniscientGod {
     public boolean addTask(Operator o, Task t) {
         boolean added = false;
         for (MessagingAgent p : getNeighbors(o.getLocation(), o.getCommunicationRange())) {
-            visibilityMap.get(p).add(t);
+            see(p, t);
             added = true;
         }
         changes = true;
         return added;
     }
 
+    /**
+     * Make the given agent aware of the given task.
+     */
+    private void see(MessagingAgent p, Task t) {
+        if (visibilityMap.get(p).add(t)) {
+            visibilityIndex.add(t, p);
+        }
+    }
+
     public void updateVisibility() {
         for (MessagingAgent p : visibilityMap.keySet()) {
             for (MessagingAgent p2 : getNeighbors(p.getLocation(), p.getCommunicationRange())) {
-                visibilityMap.get(p).addAll(visibilityMap.get(p2));
+                if (p2 == p) {
+                    continue;
+                }
+                for (Task t : visibilityMap.get(p2)) {
+                    see(p, t);
+                }
             }
         }
     }
@@ -191,8 +210,9 @@ class OmniscientGod {
     }
 
     void taskCompleted(Task t) {
-        for (MessagingAgent p : visibilityMap.keySet()) {
+        for (MessagingAgent p : visibilityIndex.getHolders(t)) {
             visibilityMap.get(p).remove(t);
+            visibilityIndex.remove(t, p);
         }
 
         LOG.fine("Removing task " + t + " because it has been completed.");
@@ -47,6 +47,13 @@ import java.util.List;
  */
 public class OmniscientPlane extends AbstractPlane {
 
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Omniscient god that commands this plane.
+     */
+    private OmniscientGod god;
+
     public OmniscientPlane(Location location) {
         super(location);
     }
@@ -54,17 +61,21 @@ public class OmniscientPlane extends AbstractPlane {
     @Override
     public void initialize() {
         super.initialize();
-        Omniscient.initialize(getWorld());
+        god = Omniscient.getGod(getWorld());
+    }
+
+    OmniscientGod getGod() {
+        return god;
     }
 
     @Override
     public void preStep() {
-        Omniscient.iter(getWorld().getTime());
+        god.iter(getWorld().getTime());
     }
 
     @Override
     public void step() {
-        Task nextTask = Omniscient.getNextTask(this);
+        Task nextTask = god.getNextTask(this);
         if (nextTask != getNextTask()) {
             setNextTask(nextTask);
         }
@@ -73,7 +84,7 @@ public class OmniscientPlane extends AbstractPlane {
 
     @Override
     protected void taskCompleted(Task t) {
-        Omniscient.taskCompleted(t);
+        god.taskCompleted(t);
     }
 
     @Override
@@ -84,7 +95,7 @@ public class OmniscientPlane extends AbstractPlane {
 
     @Override
     public List<Location> getPlannedLocations() {
-        return Omniscient.getPlannedLocations(this);
+        return god.getPlannedLocations(this);
     }
 
 
@@ -51,6 +51,8 @@ import java.util.List;
  */
 public class Nearest implements OperatorStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     @Override
     public boolean submitTask(World w, Operator o, Task t) {
         final List<Plane> planes = w.getPlanes();
@@ -40,6 +40,8 @@ import es.csic.iiia.planes.Operator;
 import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.World;
 
+import java.io.Serializable;
+
 /**
  * Defines a strategy that an operator may use to submit tasks.
  *
@@ -51,6 +53,6 @@ import es.csic.iiia.planes.World;
  *
  * @author Marc Pujol <mpujol@iiia.csic.es>
  */
-public interface OperatorStrategy {
+public interface OperatorStrategy extends Serializable {
     public boolean submitTask(World w, Operator o, Task t);
 }
\ No newline at end of file
@@ -50,7 +50,7 @@ import java.util.List;
  */
 public class RandomInRange implements OperatorStrategy {
 
-    private java.util.Random r = new java.util.Random(0);
+    private static final long serialVersionUID = 1L;
 
     @Override
     public boolean submitTask(World w, Operator o, Task t) {
@@ -64,7 +64,7 @@ public class RandomInRange implements OperatorStrategy {
             }
         }
 
-        int pnum = r.nextInt(planesInRange.size());
+        int pnum = o.getRandom().nextInt(planesInRange.size());
         planesInRange.get(pnum).addTask(t);
         return true;
     }
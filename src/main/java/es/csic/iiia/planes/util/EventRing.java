@@ -0,0 +1,144 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Fixed-size ring buffer of simulation events.
+ * <p/>
+ * Each event is a tuple of primitive values (time, type, subject and object),
+ * stored in parallel arrays, so recording an event neither boxes nor
+ * allocates anything. Once the buffer is full, new events overwrite the
+ * oldest ones, so that the buffer always holds the latest events.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class EventRing {
+
+    private final long[] times;
+    private final int[] types;
+    private final int[] subjects;
+    private final int[] objects;
+
+    /** Position where the next event will be stored */
+    private int next;
+
+    /** Total number of events recorded so far */
+    private long total;
+
+    /**
+     * Build a new ring buffer.
+     *
+     * @param capacity maximum number of events held by the buffer.
+     */
+    public EventRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the buffer must be at least 1.");
+        }
+        times = new long[capacity];
+        types = new int[capacity];
+        subjects = new int[capacity];
+        objects = new int[capacity];
+    }
+
+    /**
+     * Record a new event.
+     *
+     * @param time time at which the event happens.
+     * @param type type of event.
+     * @param subject identifier of the element that causes the event.
+     * @param object identifier of the element affected by the event, or -1 if
+     *               there is none.
+     */
+    public void record(long time, int type, int subject, int object) {
+        times[next] = time;
+        types[next] = type;
+        subjects[next] = subject;
+        objects[next] = object;
+        next = next+1 == times.length ? 0 : next+1;
+        total++;
+    }
+
+    /**
+     * Get the number of events currently held by the buffer.
+     *
+     * @return number of events held by the buffer.
+     */
+    public int size() {
+        return (int)Math.min(total, times.length);
+    }
+
+    /**
+     * Get the total number of events recorded, including those that have
+     * already been overwritten.
+     *
+     * @return total number of events recorded.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Write the events held by the buffer, from oldest to newest.
+     * <p/>
+     * The output starts with the total number of recorded events (long) and
+     * the number of events that follow (int). Then, each event is written as
+     * its time (long), type (int), subject (int) and object (int), all of
+     * them in big-endian order.
+     *
+     * @param stream stream where to write the events.
+     * @throws IOException if the events can not be written.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(stream);
+        final int n = size();
+        out.writeLong(total);
+        out.writeInt(n);
+        for (int k=0, i=(next - n + times.length) % times.length; k<n; k++) {
+            out.writeLong(times[i]);
+            out.writeInt(types[i]);
+            out.writeInt(subjects[i]);
+            out.writeInt(objects[i]);
+            i = i+1 == times.length ? 0 : i+1;
+        }
+        out.flush();
+    }
+
+}
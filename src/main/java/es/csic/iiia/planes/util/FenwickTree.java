@@ -0,0 +1,162 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import java.io.Serializable;
+
+/**
+ * Binary indexed (Fenwick) tree of non-negative counts.
+ * <p/>
+ * Supports updating a count, computing prefix sums and finding the position
+ * of the k-th counted element, all of them in logarithmic time.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class FenwickTree implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] tree;
+    private final int mask;
+    private int total;
+
+    /**
+     * Build a new tree with all counts set to zero.
+     *
+     * @param size number of positions.
+     */
+    public FenwickTree(int size) {
+        tree = new int[size+1];
+        mask = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    /**
+     * Build a new tree with the given counts, in linear time.
+     *
+     * @param counts initial count of each position.
+     */
+    public FenwickTree(int[] counts) {
+        this(counts.length);
+        for (int i=1; i<tree.length; i++) {
+            tree[i] += counts[i-1];
+            total += counts[i-1];
+            final int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Get the number of positions of this tree.
+     *
+     * @return number of positions.
+     */
+    public int size() {
+        return tree.length-1;
+    }
+
+    /**
+     * Add the given amount to the count at the given position.
+     *
+     * @param i position to update.
+     * @param delta amount to add.
+     */
+    public void add(int i, int delta) {
+        total += delta;
+        for (i++; i<tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Get the sum of the counts in positions [0, i).
+     *
+     * @param i end (exclusive) of the prefix.
+     * @return sum of the counts in the prefix.
+     */
+    public int prefix(int i) {
+        int sum = 0;
+        for (; i>0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Get the sum of the counts in positions [from, to).
+     *
+     * @param from start (inclusive) of the range.
+     * @param to end (exclusive) of the range.
+     * @return sum of the counts in the range.
+     */
+    public int sum(int from, int to) {
+        return prefix(to) - prefix(from);
+    }
+
+    /**
+     * Get the sum of all the counts.
+     *
+     * @return sum of all the counts.
+     */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Find the position of the k-th counted element (starting at 0), that is,
+     * the smallest position i such that the sum of [0, i] exceeds k.
+     *
+     * @param k rank of the element, between 0 and {@link #total()} - 1.
+     * @return position of the element.
+     */
+    public int select(int k) {
+        if (k < 0 || k >= total) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds [0, " + total + ").");
+        }
+        int pos = 0;
+        for (int step = mask; step > 0; step >>= 1) {
+            final int next = pos + step;
+            if (next < tree.length && tree[next] <= k) {
+                pos = next;
+                k -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of the integers [0, n), each one with its own priority.
+ * <p/>
+ * The heap keeps track of where each element lies, so elements can be
+ * removed and their priorities updated in logarithmic time. Elements with
+ * the same priority are sorted by their value, lowest first, so the top of
+ * the heap is always well defined.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public final class IndexedMaxHeap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] heap;
+    private final int[] positions;
+    private final int[] priorities;
+    private int size;
+
+    /**
+     * Build a new empty heap.
+     *
+     * @param n number of possible elements.
+     */
+    public IndexedMaxHeap(int n) {
+        heap = new int[n];
+        positions = new int[n];
+        priorities = new int[n];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Get the number of elements in the heap.
+     *
+     * @return number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the given element is in the heap.
+     *
+     * @param e element.
+     * @return <em>true</em> if the element is in the heap.
+     */
+    public boolean contains(int e) {
+        return positions[e] >= 0;
+    }
+
+    /**
+     * Get the element with the highest priority (and lowest value among
+     * those with the same priority).
+     *
+     * @return top element, or -1 if the heap is empty.
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Add an element to the heap, or update its priority if it is already
+     * there.
+     *
+     * @param e element.
+     * @param priority priority of the element.
+     */
+    public void put(int e, int priority) {
+        int pos = positions[e];
+        if (pos < 0) {
+            pos = size++;
+            heap[pos] = e;
+            positions[e] = pos;
+        }
+        priorities[e] = priority;
+        siftDown(siftUp(pos));
+    }
+
+    /**
+     * Remove an element from the heap, if it is there.
+     *
+     * @param e element.
+     * @return <em>true</em> if the element was in the heap.
+     */
+    public boolean remove(int e) {
+        final int pos = positions[e];
+        if (pos < 0) {
+            return false;
+        }
+        positions[e] = -1;
+        final int last = heap[--size];
+        if (pos < size) {
+            heap[pos] = last;
+            positions[last] = pos;
+            siftDown(siftUp(pos));
+        }
+        return true;
+    }
+
+    private boolean above(int a, int b) {
+        return priorities[a] > priorities[b] || (priorities[a] == priorities[b] && a < b);
+    }
+
+    private int siftUp(int pos) {
+        final int e = heap[pos];
+        while (pos > 0) {
+            final int parent = (pos - 1) >>> 1;
+            if (!above(e, heap[parent])) {
+                break;
+            }
+            move(heap[parent], pos);
+            pos = parent;
+        }
+        move(e, pos);
+        return pos;
+    }
+
+    private void siftDown(int pos) {
+        final int e = heap[pos];
+        while (true) {
+            int child = 2*pos + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && above(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!above(heap[child], e)) {
+                break;
+            }
+            move(heap[child], pos);
+            pos = child;
+        }
+        move(e, pos);
+    }
+
+    private void move(int e, int pos) {
+        heap[pos] = e;
+        positions[e] = pos;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * File where the simulations' settings and results are appended, titled
+ * "results.txt".
+ *
+ * Simulations running in the same process share this file, so each text is
+ * appended at once.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class ResultsFile {
+    private static final Logger LOG = Logger.getLogger(ResultsFile.class.getName());
+
+    /**
+     * Name of the results file.
+     */
+    public static final String NAME = "results.txt";
+
+    private ResultsFile() {}
+
+    /**
+     * Appends the given text to the results file.
+     *
+     * @param text text to append.
+     */
+    public static synchronized void append(String text) {
+        try {
+            PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(NAME, true)));
+            try {
+                for (String s : text.split("\n")) {
+                    out.println(s);
+                }
+            } finally {
+                out.close();
+            }
+            if (out.checkError()) {
+                throw new IOException("Error writing to \"" + NAME + "\"");
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Unable to append the results to \"" + NAME + "\"", ex);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2012 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import java.util.Random;
+
+/**
+ * Fast random number generator that can be split into independent streams.
+ * <p/>
+ * This is an implementation of the SplitMix64 algorithm. Unlike
+ * {@link Random}, its state is a plain long, so it is cheap to build and does
+ * not pay for atomic updates. In exchange, it must not be shared between
+ * threads. Instead, each thread (or agent) should draw from its own stream,
+ * obtained through {@link #split(long)}.
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class SplitMixRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Seed of this generator, from which the split streams are derived.
+     */
+    private long seed;
+
+    /**
+     * Current state of this generator.
+     */
+    private long state;
+
+    /**
+     * Builds a new generator with the given seed.
+     *
+     * @param seed initial seed.
+     */
+    public SplitMixRandom(long seed) {
+        // Random's constructor initializes our state through setSeed
+        super(seed);
+    }
+
+    /**
+     * Get a new generator whose stream is determined by the seed of this one
+     * and the given key.
+     * <p/>
+     * Splitting does not advance this generator, so the same key always
+     * yields the same stream. Different keys yield statistically independent
+     * streams.
+     *
+     * @param key key identifying the new stream.
+     * @return new generator.
+     */
+    public SplitMixRandom split(long key) {
+        return new SplitMixRandom(mix(seed ^ mix(key + GOLDEN_GAMMA)));
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int)(nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
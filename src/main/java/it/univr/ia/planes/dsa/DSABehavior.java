@@ -25,7 +25,6 @@
  */
 package it.univr.ia.planes.dsa;
 
-import es.csic.iiia.planes.MessagingAgent;
 import es.csic.iiia.planes.Plane;
 import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.behaviors.AbstractBehavior;
@@ -40,8 +39,13 @@ import java.util.logging.Logger;
  * 
  * @author Andrea Jeradi, Francesco Donato
  */
-public class DSABehavior extends AbstractBehavior<DSAPlane> {
+public class DSABehavior extends AbstractBehavior<DSAPlane>
+    implements PresentationMessage.Handler, TaskMessage.Handler,
+        ReallocatedTaskMessage.Handler
+{
     
+    private static final long serialVersionUID = 1L;
+
     private static final Logger LOG = Logger.getLogger(DSABehavior.class.getName());
 
     private NeighborTracking neighborTracker;
@@ -50,11 +54,11 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
     
     private int currentDsaIteration;
     
-    private final int nDsaIterations;
+    private int nDsaIterations;
     
-    private final int dsaEvery;
+    private int dsaEvery;
     
-    private final double dsaP;
+    private double dsaP;
     
     private EvaluationFunction evalFunction;
     
@@ -85,9 +89,16 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
         toDo = DSAStep.Nothing;
         dsaGraph = new DSATaskGraph();
         
-        rnd = new Random(agent.getId());
+        rnd = agent.getRandom();
         
         //load the settings
+        readConfiguration();
+    }
+
+    /**
+     * Reads the DSA settings from the world's configuration.
+     */
+    public void readConfiguration() {
         nDsaIterations = getConfiguration().getDsaIterations();
         dsaEvery = getConfiguration().getDsaEvery();
         dsaP = getConfiguration().getDsaP();
@@ -116,6 +127,7 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
      * 
      * @param pm message contaning the tasks list of a near Plane.
      */
+    @Override
     public void on(PresentationMessage pm){
         
         final Plane sender =(Plane) pm.getSender();
@@ -154,6 +166,7 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
      * 
      * @param ts message containg the sender of the task and its new value.
      */
+    @Override
     public void on(TaskMessage ts ){
      
         dsaGraph.getTaskNode(ts.getTask()).setValue(ts.getValue());
@@ -169,6 +182,7 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
      * 
      * @param rtm message contains the new task for this agent.
      */
+    @Override
     public void on(ReallocatedTaskMessage rtm) {
         getAgent().addTask(rtm.getTask());
         
@@ -242,12 +256,7 @@ public class DSABehavior extends AbstractBehavior<DSAPlane> {
      * @return number of Neighbors Agent without myself
      */
     private int getNumberOfNeighbors(){  
-        int count = 0;
-        for(MessagingAgent a: neighborTracker.getNeighbors(nDsaIterations)) {                    
-            count++;
-        }
-        return count - 1;
-        
+        return neighborTracker.countNeighbors(nDsaIterations) - 1;
     }
     
     
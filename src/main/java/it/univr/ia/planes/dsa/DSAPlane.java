@@ -27,6 +27,7 @@ package it.univr.ia.planes.dsa;
 
 import es.csic.iiia.planes.AbstractPlane;
 import es.csic.iiia.planes.Location;
+import es.csic.iiia.planes.Reconfigurable;
 import es.csic.iiia.planes.Task;
 import es.csic.iiia.planes.behaviors.neighbors.NeighborTracking;
 import java.util.ArrayList;
@@ -37,7 +38,9 @@ import java.util.List;
  * 
  * @author Andrea Jeradi, Francesco Donato
  */
-public class DSAPlane extends AbstractPlane {
+public class DSAPlane extends AbstractPlane implements Reconfigurable {
+
+    private static final long serialVersionUID = 1L;
 
     private ArrayList<Task> localTasks = new ArrayList<Task>();
 
@@ -52,6 +55,11 @@ public class DSAPlane extends AbstractPlane {
         super.initialize();
     }
 
+    @Override
+    public void reconfigure() {
+        getBehavior(DSABehavior.class).readConfiguration();
+    }
+
     @Override
     protected void taskCompleted(Task t) {}
 
@@ -39,6 +39,8 @@ import java.util.List;
  * @author Andrea Jeradi, Francesco Donato
  */
 public class PresentationMessage extends AbstractMessage{
+    private static final long serialVersionUID = 1L;
+
     /**
      * Tasks list that the sender plane know.
      */    
@@ -59,4 +61,29 @@ public class PresentationMessage extends AbstractMessage{
     public List<Task> getTasks(){
         return this.tasks;
     }
+
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle presentation messages.
+     */
+    public interface Handler {
+
+        /**
+         * React to a presentation message.
+         *
+         * @param message received.
+         */
+        public void on(PresentationMessage message);
+
+    }
+
 }
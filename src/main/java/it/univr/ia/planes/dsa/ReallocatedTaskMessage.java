@@ -38,6 +38,8 @@ import es.csic.iiia.planes.Task;
  * @author Andrea Jeradi, Francesco Donato
  */
 public class ReallocatedTaskMessage extends AbstractMessage{
+    private static final long serialVersionUID = 1L;
+
     /**
      * Task to do.
      */
@@ -61,5 +63,30 @@ public class ReallocatedTaskMessage extends AbstractMessage{
      */
     public Task getTask() {        
         return task;
-    }   
+    }
+
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle the messages reallocating tasks.
+     */
+    public interface Handler {
+
+        /**
+         * React to a message reallocating a task.
+         *
+         * @param message received.
+         */
+        public void on(ReallocatedTaskMessage message);
+
+    }
+
 }
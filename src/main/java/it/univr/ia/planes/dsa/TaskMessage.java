@@ -37,6 +37,8 @@ import es.csic.iiia.planes.Task;
  * @author Andrea Jeradi, Francesco Donato
  */
 public class TaskMessage extends AbstractMessage{
+    private static final long serialVersionUID = 1L;
+
     /**
      * Task sender of the message.
      */
@@ -77,5 +79,30 @@ public class TaskMessage extends AbstractMessage{
     public Plane getValue(){
         return value;
     }
-    
+
+    @Override
+    public boolean isHandledBy(Object behavior) {
+        return behavior instanceof Handler;
+    }
+
+    @Override
+    public void deliverTo(Object behavior) {
+        ((Handler)behavior).on(this);
+    }
+
+    /**
+     * Interface of the behaviors that handle the messages announcing the
+     * values of tasks.
+     */
+    public interface Handler {
+
+        /**
+         * React to a message announcing the new value of a task.
+         *
+         * @param message received.
+         */
+        public void on(TaskMessage message);
+
+    }
+
 }
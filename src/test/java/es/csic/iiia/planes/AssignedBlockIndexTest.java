@@ -0,0 +1,83 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class AssignedBlockIndexTest {
+
+    /**
+     * Test that counting the blocks near a position matches a scan of the
+     * grid, including positions outside of it.
+     */
+    @Test
+    public void testCountWithin() {
+        System.out.println("countWithin");
+        Random random = new Random(0);
+        SearchGrid grid = new SearchGrid(3, 5, 3);
+        final int width = grid.getBlockColumns(), height = grid.getBlockRows();
+        AssignedBlockIndex index = new AssignedBlockIndex(grid);
+
+        for (int step=0; step<300; step++) {
+            final Block b = grid.getBlockAt(random.nextInt(width), random.nextInt(height));
+            b.setState(Block.blockState.values()[random.nextInt(4)]);
+
+            final int x = random.nextInt(width+6) - 3;
+            final int y = random.nextInt(height+6) - 3;
+            final int radius = random.nextInt(8) - 1;
+            int expected = 0, total = 0;
+            for (int i=0; i<grid.getBlockCount(); i++) {
+                final Block a = grid.getBlock(i);
+                if (a.getState() == Block.blockState.ASSIGNED) {
+                    total++;
+                    if (Math.abs(a.getxLoc()-x) + Math.abs(a.getyLoc()-y) <= radius) {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals(total, index.size());
+            assertEquals(expected, index.countWithin(x, y, radius));
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class BlockPoolTest {
+
+    /**
+     * Test that the pool behaves as an array list under the operations used
+     * by the planes.
+     */
+    @Test
+    public void testListOperations() {
+        System.out.println("listOperations");
+        Random random = new Random(0);
+        List<Block> expected = new ArrayList<Block>();
+        SearchGrid grid = new SearchGrid(8, 7, 3);
+        BlockPool pool = new BlockPool(grid);
+        List<Block> out = new ArrayList<Block>();
+        for (int i=0; i<grid.getBlockCount(); i++) {
+            Block b = grid.getBlock(i);
+            expected.add(b);
+            pool.add(b);
+        }
+
+        for (int i=0; i<5000; i++) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    if (!expected.isEmpty()) {
+                        final int k = random.nextInt(expected.size());
+                        final Block b = expected.remove(k);
+                        assertEquals(b, pool.remove(k));
+                        out.add(b);
+                    }
+                    break;
+                case 1:
+                    if (!out.isEmpty()) {
+                        final Block b = out.remove(random.nextInt(out.size()));
+                        expected.add(b);
+                        pool.add(b);
+                    }
+                    break;
+                default:
+                    final Block b = random.nextBoolean() || out.isEmpty()
+                            ? (expected.isEmpty() ? null : expected.get(random.nextInt(expected.size())))
+                            : out.get(random.nextInt(out.size()));
+                    if (b != null) {
+                        assertEquals(expected.remove(b), pool.remove(b));
+                        out.remove(b);
+                        out.add(b);
+                    }
+            }
+            assertEquals(expected.size(), pool.size());
+            assertEquals(expected.isEmpty(), pool.isEmpty());
+        }
+        assertEquals(expected, pool);
+    }
+
+}
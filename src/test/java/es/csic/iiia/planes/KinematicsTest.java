@@ -0,0 +1,85 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class KinematicsTest {
+
+    public KinematicsTest() {
+    }
+
+    /**
+     * A copy of a plane's track must predict its position exactly, until
+     * and past its destination.
+     */
+    @Test
+    public void testTrack() {
+        final Random random = new Random(0);
+        final Kinematics k = new Kinematics();
+        final Location position = new Location(0, 0);
+        final Kinematics.Track track = new Kinematics.Track();
+
+        for (int n=0; n<50; n++) {
+            final int i = k.add(new Location(random.nextDouble()*1000, random.nextDouble()*1000));
+            k.setDestination(i, new Location(random.nextDouble()*1000, random.nextDouble()*1000),
+                    0.5 + random.nextDouble()*3);
+            k.getTrack(i, track);
+            for (int step=0; step<1000; step++) {
+                k.move(i);
+                track.advance();
+                k.getPosition(i, position);
+                assertEquals(Double.doubleToLongBits(position.getX()), Double.doubleToLongBits(track.getX()));
+                assertEquals(Double.doubleToLongBits(position.getY()), Double.doubleToLongBits(track.getY()));
+            }
+        }
+
+        // Stopped tracks stay where they are
+        final double x = track.getX(), y = track.getY();
+        track.stop();
+        track.advance();
+        assertEquals(x, track.getX(), 0);
+        assertEquals(y, track.getY(), 0);
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class NearestGridTest {
+
+    private List<Station> stations;
+    private Space space;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        random = new Random(0);
+        space = new Space(1000, 600);
+        stations = new ArrayList<Station>();
+        for (int i=0; i<30; i++) {
+            stations.add(new Station(randomLocation()));
+        }
+        // Duplicated positions, to check that ties are broken by list order
+        for (int i=0; i<5; i++) {
+            Location l = stations.get(i).getLocation();
+            stations.add(new Station(new Location(l.getX(), l.getY())));
+        }
+    }
+
+    private Location randomLocation() {
+        // Include some locations outside of the space
+        return new Location(random.nextDouble()*1100 - 50, random.nextDouble()*700 - 50);
+    }
+
+    private Station bruteForce(Location location) {
+        double mind = Double.MAX_VALUE;
+        Station best = null;
+        for (Station s : stations) {
+            final double d = location.getDistance(s.getLocation());
+            if (d < mind) {
+                best = s;
+                mind = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Test of nearest method, of class NearestGrid.
+     */
+    @Test
+    public void testNearest() {
+        System.out.println("nearest");
+        NearestGrid<Station> grid = new NearestGrid<Station>(stations, space);
+        assertEquals(stations.size(), grid.size());
+        for (int i=0; i<10000; i++) {
+            final Location l = randomLocation();
+            assertSame(bruteForce(l), grid.nearest(l));
+        }
+        for (Station s : stations) {
+            assertSame(bruteForce(s.getLocation()), grid.nearest(s.getLocation()));
+        }
+    }
+
+    /**
+     * Test of nearest method, of class NearestGrid, without elements.
+     */
+    @Test
+    public void testEmpty() {
+        System.out.println("empty");
+        NearestGrid<Station> grid = new NearestGrid<Station>(new ArrayList<Station>(), space);
+        assertNull(grid.nearest(new Location(10, 10)));
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class PlaneGridTest {
+
+    private static final double RANGE = 50;
+
+    private List<Plane> planes;
+    private Space space;
+    private Random random;
+
+    public PlaneGridTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        random = new Random(0);
+        space = new Space(1000, 600);
+        planes = new ArrayList<Plane>();
+        for (int i=0; i<200; i++) {
+            Plane p = new DefaultPlane(randomLocation());
+            p.setCommunicationRange(RANGE);
+            planes.add(p);
+        }
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private Location randomLocation() {
+        // Include some locations outside of the space
+        return new Location(random.nextDouble()*1100 - 50, random.nextDouble()*700 - 50);
+    }
+
+    private int[] bruteForce(Location origin, double range) {
+        int[] result = new int[planes.size()];
+        int n = 0;
+        for (int i=0; i<planes.size(); i++) {
+            if (origin.distance(planes.get(i).getLocation()) <= range) {
+                result[n++] = i;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private void checkQueries(PlaneGrid grid) {
+        for (int i=0; i<100; i++) {
+            final Location origin = randomLocation();
+            final double range = random.nextDouble()*2*RANGE;
+            final int[] result = new int[grid.size()];
+            final int n = grid.query(origin, range, result);
+            assertArrayEquals(bruteForce(origin, range), Arrays.copyOf(result, n));
+        }
+    }
+
+    /**
+     * Test of query method, of class PlaneGrid.
+     */
+    @Test
+    public void testQuery() {
+        System.out.println("query");
+        PlaneGrid grid = new PlaneGrid(planes, space);
+        assertEquals(planes.size(), grid.size());
+        checkQueries(grid);
+    }
+
+    /**
+     * Test of update method, of class PlaneGrid.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("update");
+        PlaneGrid grid = new PlaneGrid(planes, space);
+        for (int i=0; i<10; i++) {
+            for (Plane p : planes) {
+                if (random.nextBoolean()) {
+                    Location l = randomLocation();
+                    p.getLocation().setLocation(l.getX(), l.getY());
+                    grid.update(p);
+                }
+            }
+            checkQueries(grid);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class RegionPoolTest {
+
+    private List<Region> regions;
+    private RegionPool pool;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        random = new Random(0);
+        SearchGrid grid = new SearchGrid(20, 15, 3);
+        regions = grid.getRegions();
+        pool = new RegionPool(grid);
+    }
+
+    /**
+     * Draw a region the way the pool must do it, from the list of matching
+     * regions.
+     */
+    private Region bruteForce(Location l, double distance, Random rnd) {
+        List<Region> candidates = new ArrayList<Region>();
+        for (Region r : regions) {
+            if (r.getState() == Region.regionState.UNASSIGNED
+                    && l.getDistance(r.getCenter()) < distance) {
+                candidates.add(r);
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(rnd.nextInt(candidates.size()));
+    }
+
+    /**
+     * Test of randomWithin and random methods, of class RegionPool.
+     */
+    @Test
+    public void testRandom() {
+        System.out.println("random");
+        while (pool.size() > 0) {
+            final Location l = new Location(random.nextDouble()*200 - 10, random.nextDouble()*150 - 10);
+            final double distance = random.nextDouble()*40;
+            final long seed = random.nextLong();
+
+            Region expected = bruteForce(l, distance, new Random(seed));
+            assertEquals(expected, pool.randomWithin(l, distance, new Random(seed)));
+
+            expected = bruteForce(l, Double.POSITIVE_INFINITY, new Random(seed));
+            assertEquals(expected, pool.random(new Random(seed)));
+
+            // Assign it, and sometimes release a previously assigned region
+            expected.setState(Region.regionState.ASSIGNED);
+            if (random.nextInt(4) == 0) {
+                regions.get(random.nextInt(regions.size())).setState(Region.regionState.UNASSIGNED);
+            }
+        }
+        assertNull(pool.random(random));
+        assertNull(pool.randomWithin(new Location(0, 0), 1000, random));
+    }
+
+    /**
+     * Test of mostCrowdedUnexplored method, of class RegionPool.
+     */
+    @Test
+    public void testMostCrowdedUnexplored() {
+        System.out.println("mostCrowdedUnexplored");
+        for (int step=0; step<2000; step++) {
+            final Region r = regions.get(random.nextInt(regions.size()));
+            if (random.nextBoolean()) {
+                r.taskFound();
+            } else {
+                r.setState(Region.regionState.values()[random.nextInt(4)]);
+            }
+
+            Region expected = null;
+            int count = 0;
+            for (Region candidate : regions) {
+                if (candidate.getState() != Region.regionState.EXPLORED) {
+                    count++;
+                    if (expected == null || candidate.getTasksFound() > expected.getTasksFound()) {
+                        expected = candidate;
+                    }
+                }
+            }
+            assertEquals(count, pool.unexploredSize());
+            assertEquals(expected, pool.mostCrowdedUnexplored());
+        }
+    }
+
+}
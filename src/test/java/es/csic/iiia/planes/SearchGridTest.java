@@ -0,0 +1,195 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import es.csic.iiia.planes.definition.DProblem;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class SearchGridTest {
+
+    /**
+     * Find the block the way the grid must do it, scanning all the blocks
+     * in order.
+     */
+    private Block bruteForce(SearchGrid grid, Location l, double distance) {
+        Block best = null;
+        double bestDistance = distance;
+        for (int i=0; i<grid.getBlockCount(); i++) {
+            final Block b = grid.getBlock(i);
+            final double d = b.getCenter().getDistance(l);
+            if (!b.hasSurvivor() && d < bestDistance) {
+                best = b;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Test that the block coordinates and centers are consistent with the
+     * regions they belong to.
+     */
+    @Test
+    public void testGeometry() {
+        System.out.println("geometry");
+        SearchGrid grid = new SearchGrid(4, 6, 5);
+        assertEquals(4*6*9, grid.getBlockCount());
+        for (int i=0; i<grid.getBlockCount(); i++) {
+            final Block b = grid.getBlock(i);
+            assertEquals(i+1, b.getId());
+            assertEquals(b, grid.getBlockAt(b.getxLoc(), b.getyLoc()));
+
+            final Region r = grid.getRegion(b.getRegion());
+            final Location corner = r.getCorner();
+            final Location center = b.getCenter();
+            final double side = SearchGrid.REGION_SIDE*grid.getBlockSize();
+            assertTrue(center.getX() > corner.getX() && center.getX() < corner.getX() + side);
+            assertTrue(center.getY() > corner.getY() && center.getY() < corner.getY() + side);
+        }
+    }
+
+    /**
+     * Test of nearestFreeBlock method, of class SearchGrid.
+     */
+    @Test
+    public void testNearestFreeBlock() {
+        System.out.println("nearestFreeBlock");
+        Random random = new Random(0);
+        SearchGrid grid = new SearchGrid(10, 7, 3);
+
+        for (int i=0; i<3000; i++) {
+            // Integer and half-integer locations produce plenty of ties
+            final Location l = new Location(random.nextInt(220)/2.0 - 10, random.nextInt(160)/2.0 - 10);
+            final double distance = random.nextInt(4) == 0 ? random.nextDouble()*20 : Double.POSITIVE_INFINITY;
+            final Block expected = bruteForce(grid, l, distance);
+            assertEquals(expected, grid.nearestFreeBlock(l, distance));
+            if (expected != null && random.nextInt(3) > 0) {
+                expected.setSurvivor(new Task(l));
+            }
+        }
+    }
+
+    /**
+     * Test that survivors are kept per block as they are set, replaced and
+     * cleared.
+     */
+    @Test
+    public void testSurvivors() {
+        System.out.println("survivors");
+        Random random = new Random(0);
+        SearchGrid grid = new SearchGrid(5, 4, 3);
+        Task[] expected = new Task[grid.getBlockCount()];
+
+        for (int i=0; i<5000; i++) {
+            final int b = random.nextInt(expected.length);
+            final Task t = random.nextInt(3) == 0 ? null : new Task(new Location(0, 0));
+            grid.setSurvivor(b, t);
+            expected[b] = t;
+            if (i % 100 == 0) {
+                for (int j=0; j<expected.length; j++) {
+                    assertSame(expected[j], grid.getSurvivor(j));
+                    assertEquals(expected[j] != null, grid.hasSurvivor(j));
+                }
+            }
+        }
+    }
+
+    private DProblem readProblem(String file) throws IOException {
+        return new ObjectMapper().readValue(new File(file), DProblem.class);
+    }
+
+    /**
+     * Problems whose stated grid dimensions do not span their space, and
+     * older problems that do not state them, get the grid that they always
+     * got.
+     */
+    @Test
+    public void testProblemDimensions() throws IOException {
+        System.out.println("problemDimensions");
+        SearchGrid grid = AbstractWorld.buildSearchGrid(readProblem("benchmarks/test1"));
+        assertEquals(111, grid.getWidthRegions());
+        assertEquals(111, grid.getHeightRegions());
+        assertEquals(3, grid.getBlockSize());
+        assertEquals(111*111*9, grid.getBlockCount());
+
+        grid = AbstractWorld.buildSearchGrid(readProblem("scenarios/short-uniform.json"));
+        assertEquals(111, grid.getWidthRegions());
+        assertEquals(111, grid.getHeightRegions());
+        assertEquals(3, grid.getBlockSize());
+        assertEquals(111*111*9, grid.getBlockCount());
+
+        // Dimensions that span the space are used as stated
+        DProblem d = readProblem("benchmarks/test1");
+        d.setWidthRegions(37);
+        d.setHeightRegions(37);
+        d.setBlockSize(9);
+        grid = AbstractWorld.buildSearchGrid(d);
+        assertEquals(37, grid.getWidthRegions());
+        assertEquals(37, grid.getHeightRegions());
+        assertEquals(9, grid.getBlockSize());
+    }
+
+    /**
+     * The grid of every benchmark covers its whole space, so that all the
+     * region centers are inside the world.
+     */
+    @Test
+    public void testCoversSpace() throws IOException {
+        System.out.println("coversSpace");
+        for (int i=1; i<=24; i++) {
+            final DProblem d = readProblem("benchmarks/test" + i);
+            final SearchGrid grid = AbstractWorld.buildSearchGrid(d);
+            final double side = SearchGrid.REGION_SIDE*(double)grid.getBlockSize();
+            assertTrue(grid.getWidthRegions()*side >= d.getWidth());
+            assertTrue(grid.getHeightRegions()*side >= d.getHeight());
+            for (int r=0; r<grid.getRegionCount(); r++) {
+                assertTrue(grid.getRegionCenterX(r) < d.getWidth());
+                assertTrue(grid.getRegionCenterY(r) < d.getHeight());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class StandbyPoolTest {
+
+    /**
+     * Find the plane the way the pool must do it, scanning the standby planes
+     * in the order they joined.
+     */
+    private SARPlane bruteForce(List<SARPlane> planes, Location l) {
+        SARPlane best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (SARPlane p : planes) {
+            final double d = p.getLocation().getDistance(l);
+            if (d < bestDistance) {
+                best = p;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Test of pollNearest method, of class StandbyPool.
+     */
+    @Test
+    public void testPollNearest() {
+        System.out.println("pollNearest");
+        Random random = new Random(0);
+        StandbyPool pool = new StandbyPool(new Space(100, 80), 30);
+        List<SARPlane> expected = new ArrayList<SARPlane>();
+        List<SARPlane> all = new ArrayList<SARPlane>();
+        for (int i=0; i<30; i++) {
+            all.add(new SARPlane(new Location(random.nextInt(20)*5, random.nextInt(16)*5)));
+        }
+
+        for (int step=0; step<3000; step++) {
+            final SARPlane p = all.get(random.nextInt(all.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    final boolean added = !expected.contains(p);
+                    if (added) {
+                        expected.add(p);
+                    }
+                    assertEquals(added, pool.add(p));
+                    break;
+                case 1:
+                    // Planes keep moving while in the pool
+                    p.setLocation(new Location(random.nextInt(24)*5 - 10, random.nextInt(20)*5 - 10));
+                    pool.update(p);
+                    break;
+                case 2:
+                    assertEquals(expected.remove(p), pool.remove(p));
+                    break;
+                default:
+                    // Integer coordinates over a coarse lattice produce plenty of ties
+                    final Location l = new Location(random.nextInt(24)*5 - 10, random.nextInt(20)*5 - 10);
+                    final SARPlane nearest = bruteForce(expected, l);
+                    expected.remove(nearest);
+                    assertEquals(nearest, pool.pollNearest(l));
+            }
+            assertEquals(expected.size(), pool.size());
+            assertEquals(expected, new ArrayList<SARPlane>(pool));
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class TaskHolderIndexTest {
+
+    /**
+     * Test that holders are kept in order and released only once they drop
+     * every copy of a task.
+     */
+    @Test
+    public void testHolders() {
+        System.out.println("holders");
+        TaskHolderIndex<String> index = new TaskHolderIndex<String>();
+        Task t1 = new Task(new Location(0, 0));
+        Task t2 = new Task(new Location(1, 1));
+
+        index.add(t1, "b");
+        index.add(t1, "a");
+        index.add(t1, "b");
+        index.add(t2, "a");
+        assertEquals(Arrays.asList("b", "a"), index.getHolders(t1));
+        assertEquals(2, index.size());
+
+        index.remove(t1, "b");
+        assertEquals(Arrays.asList("b", "a"), index.getHolders(t1));
+        index.remove(t1, "b");
+        index.remove(t1, "c");
+        assertEquals(Arrays.asList("a"), index.getHolders(t1));
+
+        index.remove(t1, "a");
+        assertFalse(index.isHeld(t1));
+        assertTrue(index.isHeld(t2));
+        assertEquals(Collections.emptyList(), index.getHolders(t1));
+        assertEquals(1, index.size());
+    }
+
+}
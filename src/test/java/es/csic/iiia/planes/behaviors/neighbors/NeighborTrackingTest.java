@@ -0,0 +1,275 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.behaviors.neighbors;
+
+import es.csic.iiia.planes.DefaultPlane;
+import es.csic.iiia.planes.DefaultWorld;
+import es.csic.iiia.planes.InfiniteBattery;
+import es.csic.iiia.planes.Location;
+import es.csic.iiia.planes.MessagingAgent;
+import es.csic.iiia.planes.World;
+import es.csic.iiia.planes.behaviors.neighbors.NeighborTracking.TrackingMessage;
+import es.csic.iiia.planes.messaging.Message;
+import es.csic.iiia.planes.messaging.RangedMessage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class NeighborTrackingTest {
+
+    private static final int TICKS = 500;
+
+    /** Largest number of iterations that neighbors are checked for */
+    private static final int MAX_ITERATIONS = 60;
+
+    public NeighborTrackingTest() {
+    }
+
+    /**
+     * The neighbors obtained from the planes' tracks must be exactly the ones
+     * that beaconing on every step gives, at every tick, while the planes
+     * turn, stop, restart, cross each other's guard bands and stay still for
+     * longer than their beacon period.
+     */
+    @Test
+    public void testSameNeighbors() {
+        final ScriptWorld world = new ScriptWorld();
+        final List<Message> sent = new ArrayList<Message>();
+        final Scripted[] planes = new Scripted[] {
+            // Reaches its first destination, turns, stops midway and restarts
+            new Scripted(world, sent, 0, 0, 1, 100)
+                    .leg(0, 50, 0).leg(60, 150, 150).stop(120).leg(170, 0, 150).leg(260, 0, 0),
+            // Stays still well past its beacon period, and then leaves
+            new Scripted(world, sent, 100, 60, 1, 100)
+                    .stop(0).leg(200, 300, 60),
+            // Comes from beyond the guard band, crosses everyone's range and leaves
+            new Scripted(world, sent, -400, 75, 1, 100)
+                    .leg(0, 500, 75),
+            // Slower and with a shorter range, turning every few steps
+            new Scripted(world, sent, 75, 75, 0.5, 60),
+            // Waits far away, and then comes straight in
+            new Scripted(world, sent, 350, 350, 1, 100)
+                    .stop(0).leg(100, 75, 75),
+        };
+        for (int i=0; i<30; i++) {
+            planes[3].leg(7*i, i%2 == 0 ? 40 : 110, i%2 == 0 ? 110 : 40);
+        }
+        planes[3].stop(210).leg(240, 75, -100);
+
+        // Locations of the planes when the last beacons were sent
+        final Location[] beaconed = new Location[planes.length];
+        int beacons = 0, crossingTicks = 0;
+        for (long t=0; t<TICKS; t++) {
+            world.time = t;
+            final NeighborsCollection[] expected = everyStepNeighbors(planes, beaconed);
+            if (expected[0].contains(planes[2], 1)) {
+                crossingTicks++;
+            }
+
+            for (Scripted p : planes) {
+                p.advance(t);
+            }
+            if (t % 3 == 0) {
+                checkNeighbors(planes, expected, t);
+            }
+            for (Scripted p : planes) {
+                p.tracking.postStep();
+            }
+            checkNeighbors(planes, expected, t);
+
+            // Deliver the beacons just like the world does
+            for (Message m : sent) {
+                final Location origin = m.getSender().getLocation();
+                for (Scripted p : planes) {
+                    if (origin.distance(p.getLocation()) <= ((RangedMessage)m).getRange()) {
+                        p.inbox.add((TrackingMessage)m);
+                    }
+                }
+            }
+            beacons += sent.size();
+            sent.clear();
+            for (int i=0; i<planes.length; i++) {
+                beaconed[i] = new Location(planes[i].getLocation());
+            }
+        }
+
+        assertEquals(49, planes[0].tracking.getBeaconPeriod());
+        assertEquals(29, planes[3].tracking.getBeaconPeriod());
+        assertTrue(crossingTicks > 0 && crossingTicks < TICKS/2);
+        assertTrue("Sent " + beacons + " beacons", beacons < TICKS*planes.length/10);
+    }
+
+    /**
+     * Compute the neighbors of each plane as if every plane had sent a beacon
+     * from the given locations, just like planes did on every step.
+     */
+    private NeighborsCollection[] everyStepNeighbors(Scripted[] planes, Location[] beaconed) {
+        final NeighborsCollection[] result = new NeighborsCollection[planes.length];
+        for (int r=0; r<planes.length; r++) {
+            result[r] = new NeighborsCollection();
+            result[r].add(planes[r], Integer.MAX_VALUE);
+            if (beaconed[r] == null) {
+                continue;
+            }
+            for (int s=0; s<planes.length; s++) {
+                if (beaconed[s].distance(beaconed[r]) > planes[s].getCommunicationRange()) {
+                    continue;
+                }
+                final double d = beaconed[r].getDistance(beaconed[s]);
+                final double d_step = planes[r].getSpeed() + planes[s].getSpeed();
+                final int n = (int)((planes[r].getCommunicationRange() - d) / d_step);
+                if (n > 0) {
+                    result[r].add(planes[s], n);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void checkNeighbors(Scripted[] planes, NeighborsCollection[] expected, long t) {
+        for (int r=0; r<planes.length; r++) {
+            final NeighborTracking tracking = planes[r].tracking;
+            for (int k=1; k<=MAX_ITERATIONS; k++) {
+                final String msg = "Tick " + t + ", plane " + r + ", " + k + " iterations";
+                assertEquals(msg, toSet(expected[r].get(k)), toSet(tracking.getNeighbors(k)));
+                for (int s=0; s<planes.length; s++) {
+                    assertEquals(msg + ", neighbor " + s,
+                            expected[r].contains(planes[s], k), tracking.isNeighbor(planes[s], k));
+                }
+            }
+        }
+    }
+
+    private Set<MessagingAgent> toSet(Iterable<MessagingAgent> agents) {
+        final Set<MessagingAgent> result = new HashSet<MessagingAgent>();
+        for (MessagingAgent a : agents) {
+            result.add(a);
+        }
+        return result;
+    }
+
+    /**
+     * World whose time is set by the test.
+     */
+    private static class ScriptWorld extends DefaultWorld {
+        private long time;
+
+        ScriptWorld() {
+            super(null);
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * Plane that follows a script of destinations, and whose beacons are
+     * collected instead of being sent through the world.
+     */
+    private static class Scripted extends DefaultPlane {
+        private final List<Message> sent;
+        private final NeighborTracking tracking;
+        private final List<TrackingMessage> inbox = new ArrayList<TrackingMessage>();
+        private final List<Long> starts = new ArrayList<Long>();
+        private final List<Location> targets = new ArrayList<Location>();
+
+        Scripted(World world, List<Message> sent, double x, double y, double speed, double range) {
+            super(new Location(x, y));
+            this.sent = sent;
+            setWorld(world);
+            world.addPlane(this);
+            setSpeed(speed);
+            setCommunicationRange(range);
+            setBattery(new InfiniteBattery());
+            tracking = new NeighborTracking(this);
+        }
+
+        /**
+         * Fly towards the given destination from the given time on.
+         */
+        Scripted leg(long start, double x, double y) {
+            starts.add(start);
+            targets.add(new Location(x, y));
+            return this;
+        }
+
+        /**
+         * Keep still from the given time on.
+         */
+        Scripted stop(long start) {
+            starts.add(start);
+            targets.add(null);
+            return this;
+        }
+
+        /**
+         * Handle the beacons received and move as scripted.
+         */
+        void advance(long t) {
+            tracking.beforeMessages();
+            for (TrackingMessage m : inbox) {
+                tracking.on(m);
+            }
+            inbox.clear();
+
+            Location target = null;
+            for (int i=0; i<starts.size() && starts.get(i) <= t; i++) {
+                target = targets.get(i);
+            }
+            if (target != null) {
+                setDestination(target);
+                move();
+            }
+        }
+
+        @Override
+        public void send(Message message) {
+            message.setSender(this);
+            sent.add(message);
+        }
+    }
+
+}
@@ -87,4 +87,41 @@ public class NeighborsCollectionTest {
         assertEquals(true, instance.hasNeighbors(10));
     }
 
+    /**
+     * Test of count and agentAt methods, of class NeighborsCollection.
+     */
+    @Test
+    public void testOrder() {
+        System.out.println("order");
+        NeighborsCollection instance = new NeighborsCollection();
+        MessagingAgent a = new DefaultPlane(null);
+        MessagingAgent b = new DefaultPlane(null);
+        MessagingAgent c = new DefaultPlane(null);
+
+        instance.add(c, 3);
+        instance.add(a, 5);
+        instance.add(b, 3);
+        assertEquals(false, instance.add(b, 3));
+        assertEquals(3, instance.count(1));
+        assertEquals(1, instance.count(4));
+        assertEquals(0, instance.count(6));
+        assertSame(a, instance.agentAt(0));
+        assertSame(b, instance.agentAt(1));
+        assertSame(c, instance.agentAt(2));
+
+        // Updating a neighbor moves it to its new place
+        instance.add(c, 7);
+        assertSame(c, instance.agentAt(0));
+        assertEquals(true, instance.contains(c, 7));
+        assertEquals(false, instance.contains(b, 4));
+
+        instance.clear();
+        assertEquals(0, instance.size());
+        assertEquals(false, instance.contains(c, 1));
+        instance.add(b, 2);
+        assertEquals(1, instance.count(2));
+        assertSame(b, instance.agentAt(0));
+        assertEquals(false, instance.contains(a, 1));
+    }
+
 }
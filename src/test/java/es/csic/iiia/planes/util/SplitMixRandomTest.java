@@ -0,0 +1,96 @@
+/*
+ * Software License Agreement (BSD License)
+ *
+ * Copyright 2013 Marc Pujol <mpujol@iiia.csic.es>.
+ *
+ * Redistribution and use of this software in source and binary forms, with or
+ * without modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *   Redistributions of source code must retain the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer.
+ *
+ *   Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the
+ *   following disclaimer in the documentation and/or other
+ *   materials provided with the distribution.
+ *
+ *   Neither the name of IIIA-CSIC, Artificial Intelligence Research Institute
+ *   nor the names of its contributors may be used to
+ *   endorse or promote products derived from this
+ *   software without specific prior written permission of
+ *   IIIA-CSIC, Artificial Intelligence Research Institute
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package es.csic.iiia.planes.util;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the SplitMixRandom class.
+ * @author Marc Pujol <mpujol@iiia.csic.es>
+ */
+public class SplitMixRandomTest {
+
+    /**
+     * Generators built with the same seed draw the same sequence.
+     */
+    @Test
+    public void testSameSeed() {
+        SplitMixRandom r1 = new SplitMixRandom(42);
+        SplitMixRandom r2 = new SplitMixRandom(42);
+        for (int i=0; i<100; i++) {
+            assertEquals(r1.nextLong(), r2.nextLong());
+            assertEquals(r1.nextInt(10), r2.nextInt(10));
+            assertEquals(r1.nextDouble(), r2.nextDouble(), 0);
+        }
+    }
+
+    /**
+     * Splitting does not depend on (nor advance) the parent generator.
+     */
+    @Test
+    public void testSplit() {
+        SplitMixRandom parent = new SplitMixRandom(42);
+        SplitMixRandom s1 = parent.split(1);
+        parent.nextLong();
+        SplitMixRandom s2 = parent.split(1);
+        SplitMixRandom other = parent.split(2);
+
+        boolean differ = false;
+        for (int i=0; i<100; i++) {
+            final long v = s1.nextLong();
+            assertEquals(v, s2.nextLong());
+            differ |= v != other.nextLong();
+        }
+        assertTrue(differ);
+    }
+
+    /**
+     * Bounded draws stay within their bounds.
+     */
+    @Test
+    public void testBounds() {
+        SplitMixRandom r = new SplitMixRandom(0);
+        for (int i=0; i<1000; i++) {
+            final int n = r.nextInt(7);
+            assertTrue(n >= 0 && n < 7);
+            final double d = r.nextDouble();
+            assertTrue(d >= 0 && d < 1);
+        }
+    }
+
+}